@@ -0,0 +1,31 @@
+package com.example.Notification_Service.Application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Composing one email from its template. Bodies are rendered lazily, so this covers preparing the
+ * template data; rendering the HTML happens while the provider writes the message.
+ */
+@Name("com.example.notification.EmailComposed")
+@Label("Email Composed")
+@Category({"Notification Service", "Compose"})
+@Description("Composing one email from its template")
+@StackTrace(false)
+public class EmailComposedEvent extends Event {
+
+    @Label("Template")
+    public String template;
+
+    @Label("Event Type")
+    public String eventType;
+
+    public EmailComposedEvent(String template, String eventType) {
+        this.template = template;
+        this.eventType = eventType;
+    }
+}
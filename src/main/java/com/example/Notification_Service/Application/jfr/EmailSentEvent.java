@@ -0,0 +1,34 @@
+package com.example.Notification_Service.Application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One send of one email by one provider, until the provider accepted or rejected it. Async sends
+ * are committed on the thread that completed them, so their duration includes queueing for a send thread.
+ */
+@Name("com.example.notification.EmailSent")
+@Label("Email Sent")
+@Category({"Notification Service", "Send"})
+@Description("One send of one email by one provider")
+@StackTrace(false)
+public class EmailSentEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Success")
+    public boolean success;
+
+    public EmailSentEvent(String provider, String eventType) {
+        this.provider = provider;
+        this.eventType = eventType;
+    }
+}
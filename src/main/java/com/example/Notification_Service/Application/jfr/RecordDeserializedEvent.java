@@ -0,0 +1,44 @@
+package com.example.Notification_Service.Application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Binding a Kafka record's payload to its event.
+ */
+@Name("com.example.notification.RecordDeserialized")
+@Label("Record Deserialized")
+@Category({"Notification Service", "Kafka"})
+@Description("Binding a Kafka record's payload to its event")
+@StackTrace(false)
+public class RecordDeserializedEvent extends Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Partition")
+    public int partition;
+
+    @Label("Offset")
+    public long offset;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int bytes;
+
+    public RecordDeserializedEvent(String topic, int partition, long offset, String eventType, byte[] payload) {
+        this.topic = topic;
+        this.partition = partition;
+        this.offset = offset;
+        this.eventType = eventType;
+        this.bytes = payload != null ? payload.length : 0;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.Notification_Service.Application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A listener handling one Kafka record, from receiving it until it was processed, or handed to the
+ * pipeline in pipeline mode. The other stage events of the record nest inside it on the same thread.
+ */
+@Name("com.example.notification.RecordReceived")
+@Label("Record Received")
+@Category({"Notification Service", "Kafka"})
+@Description("A listener handling one Kafka record")
+@StackTrace(false)
+public class RecordReceivedEvent extends Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Partition")
+    public int partition;
+
+    @Label("Offset")
+    public long offset;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int bytes;
+
+    public RecordReceivedEvent(String topic, int partition, long offset, byte[] payload) {
+        this.topic = topic;
+        this.partition = partition;
+        this.offset = offset;
+        this.bytes = payload != null ? payload.length : 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.Notification_Service.Application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One bulk write of email send logs.
+ */
+@Name("com.example.notification.SendLogWritten")
+@Label("Send Log Written")
+@Category({"Notification Service", "Send Log"})
+@Description("One bulk write of email send logs")
+@StackTrace(false)
+public class SendLogWrittenEvent extends Event {
+
+    @Label("Entries")
+    public int entries;
+
+    @Label("Failed")
+    public int failed;
+
+    public SendLogWrittenEvent(int entries) {
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.Notification_Service.Application.pipeline;
+
+/**
+ * Notified when the notification pipeline's send stage fills up or drains again,
+ * so the event source can stop and restart feeding it.
+ */
+public interface BackpressureListener {
+
+    /**
+     * The send backlog reached the pause threshold.
+     */
+    void onSaturated();
+
+    /**
+     * The send backlog dropped back to the resume threshold.
+     */
+    void onDrained();
+}
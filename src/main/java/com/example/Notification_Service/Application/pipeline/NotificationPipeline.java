@@ -0,0 +1,158 @@
+package com.example.Notification_Service.Application.pipeline;
+
+import com.example.Notification_Service.Application.ports.EmailSender;
+import com.example.Notification_Service.Domain.EmailMessage;
+import com.example.Notification_Service.Domain.SendResult;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Staged compose → send pipeline.
+ * Composition (CPU bound) runs on a bounded executor and hands each email to
+ * {@link EmailSender#sendEmailAsync}, so no thread waits on the provider. At most
+ * send-queue-capacity emails are in flight. When the send backlog reaches it, or half
+ * of the compose queue is taken, the registered {@link BackpressureListener}s are told
+ * to stop feeding the pipeline, and told to resume once both have drained to half that.
+ * The other half of the compose queue absorbs what was already polled before the pause;
+ * a submit that still finds it full fails instead of blocking the caller.
+ */
+@Component
+public class NotificationPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPipeline.class);
+
+    private final EmailSender emailSender;
+    private final ThreadPoolExecutor composeStage;
+    // Caps emails handed to the provider and not yet answered; compose threads wait for a slot
+    private final Semaphore sendSlots;
+    private final int sendPauseThreshold;
+    private final int sendResumeThreshold;
+    private final int composePauseThreshold;
+    private final int composeResumeThreshold;
+    private final List<BackpressureListener> backpressureListeners = new CopyOnWriteArrayList<>();
+
+    // Emails queued or being composed, and emails handed to the provider and not yet answered
+    private int composeBacklog;
+    private int sendBacklog;
+    private boolean saturated;
+
+    public NotificationPipeline(
+            EmailSender emailSender,
+            @Value("${notification.pipeline.compose-threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int composeThreads,
+            @Value("${notification.pipeline.compose-queue-capacity:1000}") int composeQueueCapacity,
+            @Value("${notification.pipeline.send-queue-capacity:500}") int sendQueueCapacity) {
+        this.emailSender = emailSender;
+        this.composeStage = stage("pipeline-compose-", composeThreads, composeQueueCapacity);
+        this.sendSlots = new Semaphore(sendQueueCapacity);
+        this.sendPauseThreshold = sendQueueCapacity;
+        this.sendResumeThreshold = sendQueueCapacity / 2;
+        this.composePauseThreshold = Math.max(1, composeQueueCapacity / 2);
+        this.composeResumeThreshold = composeQueueCapacity / 4;
+    }
+
+    public void addBackpressureListener(BackpressureListener listener) {
+        backpressureListeners.add(listener);
+    }
+
+    /**
+     * Queue an email for composition and sending.
+     * @param composer Builds the email on the compose stage
+     * @return Completes once the provider accepted the email, or exceptionally if either stage failed
+     *         or the compose queue was full
+     */
+    public CompletableFuture<SendResult> submit(Supplier<EmailMessage> composer) {
+        CompletableFuture<SendResult> result = new CompletableFuture<>();
+        updateBacklog(1, 0);
+        try {
+            composeStage.execute(() -> {
+                EmailMessage message;
+                try {
+                    message = composer.get();
+                } catch (Exception e) {
+                    updateBacklog(-1, 0);
+                    result.completeExceptionally(e);
+                    return;
+                }
+                submitSend(message, result);
+            });
+        } catch (RejectedExecutionException e) {
+            updateBacklog(-1, 0);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private void submitSend(EmailMessage message, CompletableFuture<SendResult> result) {
+        try {
+            sendSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            updateBacklog(-1, 0);
+            result.completeExceptionally(new RejectedExecutionException("Interrupted while waiting for pipeline capacity", e));
+            return;
+        }
+        updateBacklog(-1, 1);
+        CompletableFuture<SendResult> sent;
+        try {
+            sent = emailSender.sendEmailAsync(message);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        sent.whenComplete((sendResult, error) -> {
+            sendSlots.release();
+            updateBacklog(0, -1);
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(sendResult);
+            }
+        });
+    }
+
+    // Listeners are notified under the lock so pause and resume can never be delivered out of order
+    private synchronized void updateBacklog(int composeDelta, int sendDelta) {
+        composeBacklog += composeDelta;
+        sendBacklog += sendDelta;
+        if (!saturated && (composeBacklog >= composePauseThreshold || sendBacklog >= sendPauseThreshold)) {
+            saturated = true;
+            logger.warn("Pipeline saturated ({} emails composing, {} sending), pausing event consumption",
+                composeBacklog, sendBacklog);
+            backpressureListeners.forEach(BackpressureListener::onSaturated);
+        } else if (saturated && composeBacklog <= composeResumeThreshold && sendBacklog <= sendResumeThreshold) {
+            saturated = false;
+            logger.info("Pipeline drained ({} emails composing, {} sending), resuming event consumption",
+                composeBacklog, sendBacklog);
+            backpressureListeners.forEach(BackpressureListener::onDrained);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        composeStage.shutdown();
+        try {
+            composeStage.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadPoolExecutor stage(String threadNamePrefix, int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(threadNamePrefix),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.Notification_Service.Application.ports;
+
+import com.example.Notification_Service.Domain.DeliveryRecord;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Read access to past send attempts, newest first.
+ */
+public interface DeliveryHistory {
+
+    /**
+     * One page of matching attempts.
+     * @param cursor The {@link Page#nextCursor()} of the previous page, or null for the first page
+     * @throws IllegalArgumentException If the cursor is malformed
+     */
+    Page find(Filter filter, String cursor, int limit);
+
+    /**
+     * Every matching attempt, read lazily from the store. The stream must be closed.
+     */
+    Stream<DeliveryRecord> stream(Filter filter);
+
+    /**
+     * Exactly one of the fields is set.
+     */
+    record Filter(String userId, String email, String applicationId) {
+    }
+
+    /**
+     * @param nextCursor Where the next page starts, or null if this is the last page
+     */
+    record Page(List<DeliveryRecord> items, String nextCursor) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.Notification_Service.Application.ports;
+
+import com.example.Notification_Service.Domain.DeliveryKey;
+
+/**
+ * Remembers which emails were already delivered, so events redelivered by rebalances
+ * or retries don't send the same email twice.
+ */
+public interface DeliveryLedger {
+
+    /**
+     * @return true if an email with this key was already sent
+     */
+    boolean isDelivered(DeliveryKey key);
+
+    /**
+     * Record that the email with this key has been sent.
+     */
+    void markDelivered(DeliveryKey key);
+}
@@ -1,7 +1,42 @@
 package com.example.Notification_Service.Application.ports;
 
 import com.example.Notification_Service.Domain.EmailMessage;
+import com.example.Notification_Service.Domain.SendResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface EmailSender {
     void sendEmail(EmailMessage emailMessage);
-}
\ No newline at end of file
+
+    /**
+     * Send an email without blocking the caller.
+     * The default runs {@link #sendEmail} on the common pool; providers that can send
+     * without a blocked thread per email override it.
+     * @return Completes with the result once the provider accepted the email, or exceptionally if it failed
+     */
+    default CompletableFuture<SendResult> sendEmailAsync(EmailMessage emailMessage) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            sendEmail(emailMessage);
+            return SendResult.success(null, Duration.ofNanos(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Send several emails, letting the provider share connections or requests between them.
+     * @return One result per email, in order; failed emails carry their error instead of failing the batch
+     */
+    default CompletableFuture<List<SendResult>> sendBatch(List<EmailMessage> emailMessages) {
+        long start = System.nanoTime();
+        List<CompletableFuture<SendResult>> results = new ArrayList<>(emailMessages.size());
+        for (EmailMessage emailMessage : emailMessages) {
+            results.add(sendEmailAsync(emailMessage)
+                .exceptionally(error -> SendResult.failure(error, Duration.ofNanos(System.nanoTime() - start))));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> results.stream().map(CompletableFuture::join).toList());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.Notification_Service.Application.ports;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Timings and counts for each stage an event passes through: deserialize, compose,
+ * send, send-log write and ack, the end-to-end latency of each event, plus the retries,
+ * dead letters, circuit-breaker transitions, fallbacks and retry-budget use along the way.
+ * Durations are in nanoseconds.
+ */
+public interface NotificationMetrics {
+
+    void recordDeserialize(String eventType, long nanos);
+
+    void recordCompose(String template, long nanos);
+
+    /**
+     * One attempt on one provider; a failover records an attempt per provider tried.
+     */
+    void recordSend(String provider, boolean success, long nanos);
+
+    /**
+     * One bulk write of send-log entries, of which {@code failed} were not stored.
+     */
+    void recordLogWrite(int written, int failed, long nanos);
+
+    void countLogDropped();
+
+    void recordAck(String topic, long nanos);
+
+    /**
+     * End-to-end latency from the event's creation by its producer to a provider accepting the email,
+     * checked against the event type's delivery SLO.
+     */
+    void recordDelivered(String eventType, String provider, long nanosSinceEvent);
+
+    /**
+     * Latency from the Kafka record's timestamp to its acknowledgment.
+     */
+    void recordAcked(String topic, String eventType, long nanosSinceRecord);
+
+    /**
+     * A failed record was published to a retry tier of its topic.
+     */
+    void countRetry(String topic, String retryTopic);
+
+    /**
+     * A failed record was published to the dead letter topic after its last retry tier, or once the retry budget was spent.
+     */
+    void countDeadLetter(String topic);
+
+    void countCircuitTransition(String circuitBreaker, String fromState, String toState);
+
+    /**
+     * An email took a path other than its first-choice provider, e.g. failover or spool.
+     */
+    void countFallback(String type);
+
+    /**
+     * A retry layer asked the shared retry budget for one retry.
+     * @param granted false if the budget was spent and the retry was refused
+     */
+    void countRetryBudget(String layer, boolean granted);
+
+    /**
+     * Publishes the retries the budget has left.
+     */
+    void registerRetryBudget(DoubleSupplier availableRetries);
+}
@@ -2,6 +2,9 @@ package com.example.Notification_Service.Application.usecases;
 
 import com.example.Notification_Service.Domain.ApplicationEmailData;
 
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Use case interface for sending congratulation emails to applicants
  * when they submit a job application.
@@ -12,6 +15,16 @@ public interface SendCongratulationsEmailUseCase {
      * Send a congratulations email to the applicant
      * @param data The application email data containing applicant and job information
      * @param userId The user ID for tracking/logging purposes
+     * @param eventTime When the triggering event was created, or null if unknown
+     */
+    void sendCongratulationsEmail(ApplicationEmailData data, String userId, Instant eventTime);
+
+    /**
+     * Queue a congratulations email on the staged notification pipeline
+     * @param data The application email data containing applicant and job information
+     * @param userId The user ID for tracking/logging purposes
+     * @param eventTime When the triggering event was created, or null if unknown
+     * @return Completes once the email was sent, or exceptionally if composing or sending failed
      */
-    void sendCongratulationsEmail(ApplicationEmailData data, String userId);
+    CompletableFuture<Void> submitCongratulationsEmail(ApplicationEmailData data, String userId, Instant eventTime);
 }
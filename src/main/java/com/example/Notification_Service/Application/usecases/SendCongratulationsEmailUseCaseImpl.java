@@ -1,13 +1,22 @@
 package com.example.Notification_Service.Application.usecases;
 
+import com.example.Notification_Service.Application.jfr.EmailComposedEvent;
+import com.example.Notification_Service.Application.pipeline.NotificationPipeline;
+import com.example.Notification_Service.Application.ports.DeliveryLedger;
 import com.example.Notification_Service.Application.ports.EmailSender;
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
 import com.example.Notification_Service.Domain.ApplicationEmailData;
+import com.example.Notification_Service.Domain.ApplicationEventData;
+import com.example.Notification_Service.Domain.DeliveryKey;
 import com.example.Notification_Service.Domain.EmailMessage;
 import com.example.Notification_Service.Domain.EmailNotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Implementation of the SendCongratulationsEmailUseCase.
  * Handles the business logic for sending congratulation emails to applicants.
@@ -17,26 +26,44 @@ public class SendCongratulationsEmailUseCaseImpl implements SendCongratulationsE
 
     private static final Logger logger = LoggerFactory.getLogger(SendCongratulationsEmailUseCaseImpl.class);
 
+    private static final String TEMPLATE = "congratulations";
+
     private final EmailNotificationService emailNotificationService;
     private final EmailSender emailSender;
+    private final NotificationPipeline notificationPipeline;
+    private final DeliveryLedger deliveryLedger;
+    private final NotificationMetrics notificationMetrics;
 
     public SendCongratulationsEmailUseCaseImpl(
             EmailNotificationService emailNotificationService,
-            EmailSender emailSender) {
+            EmailSender emailSender,
+            NotificationPipeline notificationPipeline,
+            DeliveryLedger deliveryLedger,
+            NotificationMetrics notificationMetrics) {
         this.emailNotificationService = emailNotificationService;
         this.emailSender = emailSender;
+        this.notificationPipeline = notificationPipeline;
+        this.deliveryLedger = deliveryLedger;
+        this.notificationMetrics = notificationMetrics;
     }
 
     @Override
-    public void sendCongratulationsEmail(ApplicationEmailData data, String userId) {
+    public void sendCongratulationsEmail(ApplicationEmailData data, String userId, Instant eventTime) {
         logger.info("📧 Sending congratulations email to applicant: {}", data.applicantEmail());
         
+        DeliveryKey key = deliveryKey(data);
+        if (deliveryLedger.isDelivered(key)) {
+            logger.info("⏭️ Congratulations email already sent for applicationId: {}, skipping duplicate", data.applicationId());
+            return;
+        }
+
         try {
             // Compose the congratulations email
-            EmailMessage emailMessage = emailNotificationService.composeCongratulationsEmail(data, userId);
+            EmailMessage emailMessage = compose(data, userId, eventTime);
             
             // Send the email
             emailSender.sendEmail(emailMessage);
+            deliveryLedger.markDelivered(key);
             
             logger.info("✅ Congratulations email sent successfully to: {}", data.applicantEmail());
             
@@ -45,4 +72,30 @@ public class SendCongratulationsEmailUseCaseImpl implements SendCongratulationsE
             throw new RuntimeException("Failed to send congratulations email", e);
         }
     }
+
+    @Override
+    public CompletableFuture<Void> submitCongratulationsEmail(ApplicationEmailData data, String userId, Instant eventTime) {
+        logger.info("📧 Queueing congratulations email for applicant: {}", data.applicantEmail());
+        DeliveryKey key = deliveryKey(data);
+        if (deliveryLedger.isDelivered(key)) {
+            logger.info("⏭️ Congratulations email already sent for applicationId: {}, skipping duplicate", data.applicationId());
+            return CompletableFuture.completedFuture(null);
+        }
+        return notificationPipeline.submit(() -> compose(data, userId, eventTime))
+            .thenRun(() -> deliveryLedger.markDelivered(key));
+    }
+
+    private static DeliveryKey deliveryKey(ApplicationEmailData data) {
+        return new DeliveryKey(ApplicationEventData.APPLICATION_SUBMITTED, data.applicationId(), TEMPLATE);
+    }
+
+    private EmailMessage compose(ApplicationEmailData data, String userId, Instant eventTime) {
+        EmailComposedEvent composed = new EmailComposedEvent(TEMPLATE, ApplicationEventData.APPLICATION_SUBMITTED);
+        composed.begin();
+        long start = System.nanoTime();
+        EmailMessage emailMessage = emailNotificationService.composeCongratulationsEmail(data, userId).withEvent(ApplicationEventData.APPLICATION_SUBMITTED, eventTime);
+        notificationMetrics.recordCompose(TEMPLATE, System.nanoTime() - start);
+        composed.commit();
+        return emailMessage;
+    }
 }
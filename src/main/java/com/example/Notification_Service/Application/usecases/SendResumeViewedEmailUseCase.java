@@ -2,6 +2,9 @@ package com.example.Notification_Service.Application.usecases;
 
 import com.example.Notification_Service.Domain.ResumeViewedEmailData;
 
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Use case interface for sending resume viewed emails to applicants.
  * This is triggered when an employer views/downloads an applicant's resume.
@@ -11,8 +14,19 @@ public interface SendResumeViewedEmailUseCase {
     /**
      * Send a resume viewed notification email to the applicant.
      * 
-     * @param data   The resume viewed email data containing applicant and job details
-     * @param userId The user ID for tracking/logging purposes
+     * @param data      The resume viewed email data containing applicant and job details
+     * @param userId    The user ID for tracking/logging purposes
+     * @param eventTime When the triggering event was created, or null if unknown
+     */
+    void sendResumeViewedEmail(ResumeViewedEmailData data, String userId, Instant eventTime);
+
+    /**
+     * Queue a resume viewed notification email on the staged notification pipeline.
+     * 
+     * @param data      The resume viewed email data containing applicant and job details
+     * @param userId    The user ID for tracking/logging purposes
+     * @param eventTime When the triggering event was created, or null if unknown
+     * @return Completes once the email was sent, or exceptionally if composing or sending failed
      */
-    void sendResumeViewedEmail(ResumeViewedEmailData data, String userId);
+    CompletableFuture<Void> submitResumeViewedEmail(ResumeViewedEmailData data, String userId, Instant eventTime);
 }
@@ -1,6 +1,12 @@
 package com.example.Notification_Service.Application.usecases;
 
+import com.example.Notification_Service.Application.jfr.EmailComposedEvent;
+import com.example.Notification_Service.Application.pipeline.NotificationPipeline;
+import com.example.Notification_Service.Application.ports.DeliveryLedger;
 import com.example.Notification_Service.Application.ports.EmailSender;
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import com.example.Notification_Service.Domain.ApplicationEventData;
+import com.example.Notification_Service.Domain.DeliveryKey;
 import com.example.Notification_Service.Domain.EmailMessage;
 import com.example.Notification_Service.Domain.EmailNotificationService;
 import com.example.Notification_Service.Domain.ResumeViewedEmailData;
@@ -8,6 +14,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Implementation of the SendResumeViewedEmailUseCase.
  * Handles the business logic for sending resume viewed notification emails to applicants.
@@ -18,26 +27,44 @@ public class SendResumeViewedEmailUseCaseImpl implements SendResumeViewedEmailUs
 
     private static final Logger logger = LoggerFactory.getLogger(SendResumeViewedEmailUseCaseImpl.class);
 
+    private static final String TEMPLATE = "resume-viewed";
+
     private final EmailNotificationService emailNotificationService;
     private final EmailSender emailSender;
+    private final NotificationPipeline notificationPipeline;
+    private final DeliveryLedger deliveryLedger;
+    private final NotificationMetrics notificationMetrics;
 
     public SendResumeViewedEmailUseCaseImpl(
             EmailNotificationService emailNotificationService,
-            EmailSender emailSender) {
+            EmailSender emailSender,
+            NotificationPipeline notificationPipeline,
+            DeliveryLedger deliveryLedger,
+            NotificationMetrics notificationMetrics) {
         this.emailNotificationService = emailNotificationService;
         this.emailSender = emailSender;
+        this.notificationPipeline = notificationPipeline;
+        this.deliveryLedger = deliveryLedger;
+        this.notificationMetrics = notificationMetrics;
     }
 
     @Override
-    public void sendResumeViewedEmail(ResumeViewedEmailData data, String userId) {
+    public void sendResumeViewedEmail(ResumeViewedEmailData data, String userId, Instant eventTime) {
         logger.info("📧 Sending resume viewed notification email to applicant: {}", data.applicantEmail());
         
+        DeliveryKey key = deliveryKey(data);
+        if (deliveryLedger.isDelivered(key)) {
+            logger.info("⏭️ Resume viewed notification email already sent for applicationId: {}, skipping duplicate", data.applicationId());
+            return;
+        }
+
         try {
             // Compose the resume viewed notification email
-            EmailMessage emailMessage = emailNotificationService.composeResumeViewedEmail(data, userId);
+            EmailMessage emailMessage = compose(data, userId, eventTime);
             
             // Send the email
             emailSender.sendEmail(emailMessage);
+            deliveryLedger.markDelivered(key);
             
             logger.info("✅ Resume viewed notification email sent successfully to: {}", data.applicantEmail());
             
@@ -46,4 +73,30 @@ public class SendResumeViewedEmailUseCaseImpl implements SendResumeViewedEmailUs
             throw new RuntimeException("Failed to send resume viewed notification email", e);
         }
     }
+
+    @Override
+    public CompletableFuture<Void> submitResumeViewedEmail(ResumeViewedEmailData data, String userId, Instant eventTime) {
+        logger.info("📧 Queueing resume viewed notification email for applicant: {}", data.applicantEmail());
+        DeliveryKey key = deliveryKey(data);
+        if (deliveryLedger.isDelivered(key)) {
+            logger.info("⏭️ Resume viewed notification email already sent for applicationId: {}, skipping duplicate", data.applicationId());
+            return CompletableFuture.completedFuture(null);
+        }
+        return notificationPipeline.submit(() -> compose(data, userId, eventTime))
+            .thenRun(() -> deliveryLedger.markDelivered(key));
+    }
+
+    private static DeliveryKey deliveryKey(ResumeViewedEmailData data) {
+        return new DeliveryKey(ApplicationEventData.RESUME_VIEWED, data.applicationId(), TEMPLATE);
+    }
+
+    private EmailMessage compose(ResumeViewedEmailData data, String userId, Instant eventTime) {
+        EmailComposedEvent composed = new EmailComposedEvent(TEMPLATE, ApplicationEventData.RESUME_VIEWED);
+        composed.begin();
+        long start = System.nanoTime();
+        EmailMessage emailMessage = emailNotificationService.composeResumeViewedEmail(data, userId).withEvent(ApplicationEventData.RESUME_VIEWED, eventTime);
+        notificationMetrics.recordCompose(TEMPLATE, System.nanoTime() - start);
+        composed.commit();
+        return emailMessage;
+    }
 }
@@ -2,6 +2,11 @@ package com.example.Notification_Service.Application.usecases;
 
 import com.example.Notification_Service.Domain.VerificationEmailData;
 
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
 public interface SendVerificationEmailUseCase {
-    void sendVerificationEmail(VerificationEmailData data, String userId);
+    void sendVerificationEmail(VerificationEmailData data, String userId, Instant eventTime);
+
+    CompletableFuture<Void> submitVerificationEmail(VerificationEmailData data, String userId, Instant eventTime);
 }
\ No newline at end of file
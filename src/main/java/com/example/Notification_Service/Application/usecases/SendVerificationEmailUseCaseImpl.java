@@ -1,25 +1,79 @@
 package com.example.Notification_Service.Application.usecases;
 
+import com.example.Notification_Service.Application.jfr.EmailComposedEvent;
+import com.example.Notification_Service.Application.pipeline.NotificationPipeline;
+import com.example.Notification_Service.Application.ports.DeliveryLedger;
 import com.example.Notification_Service.Application.ports.EmailSender;
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import com.example.Notification_Service.Domain.DeliveryKey;
 import com.example.Notification_Service.Domain.EmailMessage;
 import com.example.Notification_Service.Domain.EmailNotificationService;
+import com.example.Notification_Service.Domain.UserRegisteredEvent;
 import com.example.Notification_Service.Domain.VerificationEmailData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class SendVerificationEmailUseCaseImpl implements SendVerificationEmailUseCase {
 
+    private static final Logger logger = LoggerFactory.getLogger(SendVerificationEmailUseCaseImpl.class);
+
+    private static final String TEMPLATE = "verification";
+
     private final EmailNotificationService emailNotificationService;
     private final EmailSender emailSender;
+    private final NotificationPipeline notificationPipeline;
+    private final DeliveryLedger deliveryLedger;
+    private final NotificationMetrics notificationMetrics;
 
-    public SendVerificationEmailUseCaseImpl(EmailNotificationService emailNotificationService, EmailSender emailSender) {
+    public SendVerificationEmailUseCaseImpl(EmailNotificationService emailNotificationService, EmailSender emailSender,
+                                            NotificationPipeline notificationPipeline, DeliveryLedger deliveryLedger,
+                                            NotificationMetrics notificationMetrics) {
         this.emailNotificationService = emailNotificationService;
         this.emailSender = emailSender;
+        this.notificationPipeline = notificationPipeline;
+        this.deliveryLedger = deliveryLedger;
+        this.notificationMetrics = notificationMetrics;
     }
 
     @Override
-    public void sendVerificationEmail(VerificationEmailData data, String userId) {
-        EmailMessage emailMessage = emailNotificationService.composeVerificationEmail(data, userId);
+    public void sendVerificationEmail(VerificationEmailData data, String userId, Instant eventTime) {
+        DeliveryKey key = deliveryKey(userId);
+        if (deliveryLedger.isDelivered(key)) {
+            logger.info("Verification email already sent for userId: {}, skipping duplicate", userId);
+            return;
+        }
+        EmailMessage emailMessage = compose(data, userId, eventTime);
         emailSender.sendEmail(emailMessage);
+        deliveryLedger.markDelivered(key);
+    }
+
+    @Override
+    public CompletableFuture<Void> submitVerificationEmail(VerificationEmailData data, String userId, Instant eventTime) {
+        DeliveryKey key = deliveryKey(userId);
+        if (deliveryLedger.isDelivered(key)) {
+            logger.info("Verification email already sent for userId: {}, skipping duplicate", userId);
+            return CompletableFuture.completedFuture(null);
+        }
+        return notificationPipeline.submit(() -> compose(data, userId, eventTime))
+            .thenRun(() -> deliveryLedger.markDelivered(key));
+    }
+
+    private static DeliveryKey deliveryKey(String userId) {
+        return new DeliveryKey(UserRegisteredEvent.USER_REGISTERED, userId, TEMPLATE);
+    }
+
+    private EmailMessage compose(VerificationEmailData data, String userId, Instant eventTime) {
+        EmailComposedEvent composed = new EmailComposedEvent(TEMPLATE, UserRegisteredEvent.USER_REGISTERED);
+        composed.begin();
+        long start = System.nanoTime();
+        EmailMessage emailMessage = emailNotificationService.composeVerificationEmail(data, userId).withEvent(UserRegisteredEvent.USER_REGISTERED, eventTime);
+        notificationMetrics.recordCompose(TEMPLATE, System.nanoTime() - start);
+        composed.commit();
+        return emailMessage;
     }
 }
\ No newline at end of file
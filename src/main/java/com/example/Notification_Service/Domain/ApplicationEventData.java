@@ -2,6 +2,11 @@ package com.example.Notification_Service.Domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
 /**
  * Represents the Kafka event data when a job application is submitted.
  * This event is published by the Application Service to the application-events topic.
@@ -23,17 +28,39 @@ public record ApplicationEventData(
     String appliedDate,
     String timestamp
 ) {
+    public static final String APPLICATION_SUBMITTED = "APPLICATION_SUBMITTED";
+    public static final String RESUME_VIEWED = "RESUME_VIEWED";
+
     /**
      * Check if this is an application submitted event
      */
     public boolean isApplicationSubmitted() {
-        return "APPLICATION_SUBMITTED".equals(eventType);
+        return APPLICATION_SUBMITTED.equals(eventType);
     }
 
     /**
      * Check if this is a resume viewed event
      */
     public boolean isResumeViewed() {
-        return "RESUME_VIEWED".equals(eventType);
+        return RESUME_VIEWED.equals(eventType);
+    }
+
+    /**
+     * When the producer created this event: an ISO-8601 instant, or a local date-time taken as UTC.
+     * @return null if the timestamp is missing or not in either format
+     */
+    public Instant createdAt() {
+        if (timestamp == null || timestamp.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(timestamp);
+        } catch (DateTimeParseException notAnInstant) {
+            try {
+                return LocalDateTime.parse(timestamp).toInstant(ZoneOffset.UTC);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
     }
 }
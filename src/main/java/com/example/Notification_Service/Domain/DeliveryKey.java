@@ -0,0 +1,13 @@
+package com.example.Notification_Service.Domain;
+
+/**
+ * Identifies one logical email delivery: the event that triggered it, the user or
+ * application it is about, and the template sent. A redelivered event maps to the
+ * same key, which is how duplicates are recognised.
+ */
+public record DeliveryKey(String eventType, String subjectId, String template) {
+
+    public String value() {
+        return eventType + ':' + subjectId + ':' + template;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.Notification_Service.Domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * One send attempt as shown in the delivery history.
+ */
+public record DeliveryRecord(
+    String id,
+    String userId,
+    String email,
+    String applicationId,
+    boolean success,
+    String errorMessage,
+    LocalDateTime timestamp
+) {
+}
@@ -0,0 +1,32 @@
+package com.example.Notification_Service.Domain;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The HTML body of an email.
+ * Bodies can be written straight to a stream as UTF-8 bytes, so senders that
+ * support streaming never need to materialize the full body as a String.
+ */
+public interface EmailBody {
+
+    /**
+     * Materialize the full body as a String.
+     */
+    String asString();
+
+    /**
+     * Write the body to the given stream, encoded as UTF-8.
+     */
+    void writeTo(OutputStream out) throws IOException;
+
+    /**
+     * Open a fresh stream over the UTF-8 encoded body.
+     */
+    InputStream openStream();
+
+    static EmailBody of(String text) {
+        return new TextEmailBody(text);
+    }
+}
@@ -1,4 +1,38 @@
 package com.example.Notification_Service.Domain;
 
-public record EmailMessage(String to, String subject, String body, String userId) {
-}
\ No newline at end of file
+import java.time.Instant;
+
+/**
+ * @param applicationId The job application the email is about, or null for account emails
+ * @param eventType The type of the event that triggered the email, or null if not known
+ * @param eventTime When that event was created by its producer, or null if not known
+ */
+public record EmailMessage(String to, String subject, EmailBody content, String userId, String applicationId,
+                           String eventType, Instant eventTime) {
+
+    public EmailMessage(String to, String subject, EmailBody content, String userId, String applicationId) {
+        this(to, subject, content, userId, applicationId, null, null);
+    }
+
+    public EmailMessage(String to, String subject, EmailBody content, String userId) {
+        this(to, subject, content, userId, null);
+    }
+
+    public EmailMessage(String to, String subject, String body, String userId) {
+        this(to, subject, EmailBody.of(body), userId);
+    }
+
+    /**
+     * This email, stamped with the event it was composed for, so delivery latency can be measured from the event's creation.
+     */
+    public EmailMessage withEvent(String eventType, Instant eventTime) {
+        return new EmailMessage(to, subject, content, userId, applicationId, eventType, eventTime);
+    }
+
+    /**
+     * The full HTML body as a String. Prefer streaming {@link #content()} where possible.
+     */
+    public String body() {
+        return content.asString();
+    }
+}
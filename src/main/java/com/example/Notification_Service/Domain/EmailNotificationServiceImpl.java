@@ -5,11 +5,8 @@ import org.springframework.stereotype.Service;
 @Service
 public class EmailNotificationServiceImpl implements EmailNotificationService {
 
-    @Override
-    public EmailMessage composeVerificationEmail(VerificationEmailData data, String userId) {
-        String subject = "Verify Your Email Address - Welcome to " + data.getAppName() + "!";
-
-        String htmlBody = String.format("""
+    // Templates are compiled once at class load; composing only binds values, rendering happens on send.
+    static final EmailTemplate VERIFICATION_TEMPLATE = EmailTemplate.compile("""
             <!DOCTYPE html>
             <html lang="en">
             <head>
@@ -325,16 +322,9 @@ public class EmailNotificationServiceImpl implements EmailNotificationService {
                 </div>
             </body>
             </html>
-            """, data.getAppName(), data.getAppLogoUrl(), data.getAppName(), data.getAppName(), data.getFirstName(), data.getAppName(), data.getVerificationLink(), data.getVerificationLink(), data.getTokenExpirationHours(), data.getAppName(), data.getSupportUrl(), data.getAppUrl(), data.getAppUrl(), data.getSupportUrl(), data.getAppName(), data.getAppName());
+            """);
 
-        return new EmailMessage(data.getEmail(), subject, htmlBody, userId);
-    }
-
-    @Override
-    public EmailMessage composeCongratulationsEmail(ApplicationEmailData data, String userId) {
-        String subject = String.format("🎉 Application Submitted! %s at %s", data.jobTitle(), data.companyName());
-
-        String htmlBody = String.format("""
+    static final EmailTemplate CONGRATULATIONS_TEMPLATE = EmailTemplate.compile("""
             <!DOCTYPE html>
             <html lang="en">
             <head>
@@ -580,28 +570,9 @@ public class EmailNotificationServiceImpl implements EmailNotificationService {
                 </div>
             </body>
             </html>
-            """,
-            data.appName(),
-            data.appLogoUrl(),
-            data.appName(),
-            data.jobTitle(),
-            data.companyName(),
-            data.appliedDate(),
-            data.appName(),
-            data.getApplicationStatusLink(),
-            data.appName(),
-            data.unsubscribeUrl(),
-            data.privacyUrl()
-        );
+            """);
 
-        return new EmailMessage(data.applicantEmail(), subject, htmlBody, userId);
-    }
-
-    @Override
-    public EmailMessage composeResumeViewedEmail(ResumeViewedEmailData data, String userId) {
-        String subject = String.format("👀 %s viewed your resume for %s at %s", data.companyName(), data.jobTitle(), data.companyName());
-
-        String htmlBody = String.format("""
+    static final EmailTemplate RESUME_VIEWED_TEMPLATE = EmailTemplate.compile("""
             <!DOCTYPE html>
             <html lang="en">
             <head>
@@ -950,7 +921,43 @@ public class EmailNotificationServiceImpl implements EmailNotificationService {
                 </div>
             </body>
             </html>
-            """,
+            """);
+
+    @Override
+    public EmailMessage composeVerificationEmail(VerificationEmailData data, String userId) {
+        String subject = "Verify Your Email Address - Welcome to " + data.getAppName() + "!";
+
+        EmailBody htmlBody = VERIFICATION_TEMPLATE.bind(data.getAppName(), data.getAppLogoUrl(), data.getAppName(), data.getAppName(), data.getFirstName(), data.getAppName(), data.getVerificationLink(), data.getVerificationLink(), String.valueOf(data.getTokenExpirationHours()), data.getAppName(), data.getSupportUrl(), data.getAppUrl(), data.getAppUrl(), data.getSupportUrl(), data.getAppName(), data.getAppName());
+
+        return new EmailMessage(data.getEmail(), subject, htmlBody, userId);
+    }
+
+    @Override
+    public EmailMessage composeCongratulationsEmail(ApplicationEmailData data, String userId) {
+        String subject = "🎉 Application Submitted! " + data.jobTitle() + " at " + data.companyName();
+
+        EmailBody htmlBody = CONGRATULATIONS_TEMPLATE.bind(
+            data.appName(),
+            data.appLogoUrl(),
+            data.appName(),
+            data.jobTitle(),
+            data.companyName(),
+            data.appliedDate(),
+            data.appName(),
+            data.getApplicationStatusLink(),
+            data.appName(),
+            data.unsubscribeUrl(),
+            data.privacyUrl()
+        );
+
+        return new EmailMessage(data.applicantEmail(), subject, htmlBody, userId, data.applicationId());
+    }
+
+    @Override
+    public EmailMessage composeResumeViewedEmail(ResumeViewedEmailData data, String userId) {
+        String subject = "👀 " + data.companyName() + " viewed your resume for " + data.jobTitle() + " at " + data.companyName();
+
+        EmailBody htmlBody = RESUME_VIEWED_TEMPLATE.bind(
             data.appName(),
             data.applicantName(),
             data.companyName(),
@@ -966,6 +973,6 @@ public class EmailNotificationServiceImpl implements EmailNotificationService {
             data.appName()
         );
 
-        return new EmailMessage(data.applicantEmail(), subject, htmlBody, userId);
+        return new EmailMessage(data.applicantEmail(), subject, htmlBody, userId, data.applicationId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+package com.example.Notification_Service.Domain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * A pre-compiled email template.
+ * The template source uses the same placeholders as {@link String#format}
+ * ({@code %s}, {@code %d}, {@code %%} and {@code %n}) so existing templates can be
+ * compiled as-is. The source is split once into static and dynamic segments, and
+ * rendering simply appends them in order into a builder sized from the template.
+ * Static segments are also kept pre-encoded as UTF-8 so bound bodies can be streamed
+ * without ever building the full HTML String (see {@link TemplateEmailBody}).
+ * <p>
+ * While compiling, the surrounding HTML decides each slot's {@link SlotType}, and every
+ * value is escaped for its slot with {@link HtmlEscaper} when it is bound or rendered.
+ */
+public final class EmailTemplate {
+
+    /** Extra room reserved per slot for escaped characters when sizing the render builder. */
+    private static final int SLOT_ESCAPE_HEADROOM = 16;
+
+    private final String source;
+    private final String[] segments;
+    private final SlotType[] slotTypes;
+    private final byte[][] encodedSegments;
+    private final int staticLength;
+
+    private EmailTemplate(String source, String[] segments, SlotType[] slotTypes) {
+        this.source = source;
+        this.segments = segments;
+        this.slotTypes = slotTypes;
+        this.encodedSegments = new byte[segments.length][];
+        int length = 0;
+        for (int i = 0; i < segments.length; i++) {
+            encodedSegments[i] = segments[i].getBytes(StandardCharsets.UTF_8);
+            length += segments[i].length();
+        }
+        this.staticLength = length;
+    }
+
+    /**
+     * Compile a template source into static segments separated by slots.
+     * @param source The template text with {@code String.format} style placeholders
+     * @return The compiled template
+     */
+    public static EmailTemplate compile(String source) {
+        List<String> segments = new ArrayList<>();
+        List<SlotType> slotTypes = new ArrayList<>();
+        HtmlContext context = new HtmlContext();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c != '%') {
+                current.append(c);
+                context.advance(c);
+                continue;
+            }
+            if (i + 1 >= source.length()) {
+                throw new IllegalArgumentException("Dangling '%' at end of template");
+            }
+            char conversion = source.charAt(++i);
+            switch (conversion) {
+                case 's', 'd' -> {
+                    segments.add(current.toString());
+                    slotTypes.add(context.slotType());
+                    current.setLength(0);
+                }
+                case '%' -> {
+                    current.append('%');
+                    context.advance('%');
+                }
+                case 'n' -> current.append(System.lineSeparator());
+                default -> throw new IllegalArgumentException(
+                    "Unsupported template conversion '%" + conversion + "' at index " + (i - 1));
+            }
+        }
+        segments.add(current.toString());
+        return new EmailTemplate(source, segments.toArray(new String[0]), slotTypes.toArray(new SlotType[0]));
+    }
+
+    /**
+     * Bind one value per slot, in source order, without rendering anything yet.
+     * @return A body that renders or streams lazily
+     */
+    public TemplateEmailBody bind(String... values) {
+        checkSlotCount(values);
+        String[] escaped = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            escaped[i] = HtmlEscaper.escape(values[i], slotTypes[i]);
+        }
+        return new TemplateEmailBody(this, escaped);
+    }
+
+    /**
+     * Render the template with one value per slot, in source order.
+     * Null values are rendered as {@code "null"}, exactly like {@code String.format}.
+     */
+    public String render(String... values) {
+        checkSlotCount(values);
+        StringBuilder builder = newBuilder(values);
+        builder.append(segments[0]);
+        for (int i = 0; i < values.length; i++) {
+            builder.append(HtmlEscaper.escape(values[i], slotTypes[i]));
+            builder.append(segments[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Render the template with a marker in place of every slot, for providers that fill in
+     * per-recipient values themselves. Markers are inserted as-is, without escaping.
+     * @param marker Maps a slot index to its marker text
+     */
+    public String renderMarkers(IntFunction<String> marker) {
+        String[] markers = new String[slotCount()];
+        for (int i = 0; i < markers.length; i++) {
+            markers[i] = marker.apply(i);
+        }
+        return renderEscaped(markers);
+    }
+
+    /**
+     * Render values that were already escaped by {@link #bind}.
+     */
+    String renderEscaped(String[] values) {
+        StringBuilder builder = newBuilder(values);
+        builder.append(segments[0]);
+        for (int i = 0; i < values.length; i++) {
+            builder.append(values[i]);
+            builder.append(segments[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    public int slotCount() {
+        return segments.length - 1;
+    }
+
+    public SlotType slotType(int slot) {
+        return slotTypes[slot];
+    }
+
+    /**
+     * The UTF-8 bytes of a static segment. Callers must not modify the returned array.
+     */
+    byte[] encodedSegment(int index) {
+        return encodedSegments[index];
+    }
+
+    /**
+     * The original template text, mainly useful for comparing against {@code String.format}.
+     */
+    public String source() {
+        return source;
+    }
+
+    private void checkSlotCount(String[] values) {
+        if (values.length != slotCount()) {
+            throw new IllegalArgumentException(
+                "Template expects " + slotCount() + " values but got " + values.length);
+        }
+    }
+
+    // One builder per render: sends run on virtual threads, where a per-thread cache is never reused
+    private StringBuilder newBuilder(String[] values) {
+        int expected = staticLength + values.length * SLOT_ESCAPE_HEADROOM;
+        for (String value : values) {
+            expected += value != null ? value.length() : 4;
+        }
+        return new StringBuilder(expected);
+    }
+
+    /**
+     * Minimal HTML tokenizer state, just enough to tell element content from
+     * quoted attribute values while walking the template source.
+     */
+    private static final class HtmlContext {
+        private boolean inTag;
+        private char quote;
+        private final StringBuilder word = new StringBuilder();
+        private String attributeName = "";
+
+        void advance(char c) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                    attributeName = "";
+                }
+                return;
+            }
+            if (!inTag) {
+                if (c == '<') {
+                    inTag = true;
+                    word.setLength(0);
+                    attributeName = "";
+                }
+                return;
+            }
+            if (c == '>') {
+                inTag = false;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '=') {
+                attributeName = word.toString().toLowerCase();
+                word.setLength(0);
+            } else if (Character.isWhitespace(c)) {
+                word.setLength(0);
+            } else {
+                word.append(c);
+            }
+        }
+
+        SlotType slotType() {
+            if (!inTag) {
+                return SlotType.HTML_TEXT;
+            }
+            return switch (attributeName) {
+                case "href", "src", "action" -> SlotType.URL;
+                default -> SlotType.ATTRIBUTE;
+            };
+        }
+    }
+}
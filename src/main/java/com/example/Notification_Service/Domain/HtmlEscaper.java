@@ -0,0 +1,91 @@
+package com.example.Notification_Service.Domain;
+
+/**
+ * Single-pass HTML escaping for template slot values.
+ * Each value is scanned once; when nothing needs escaping the same String instance is
+ * returned, so the common case allocates nothing.
+ */
+public final class HtmlEscaper {
+
+    /** Replacement used for URLs whose scheme is not allowed in email links. */
+    static final String BLOCKED_URL = "#";
+
+    private HtmlEscaper() {
+    }
+
+    /**
+     * Escape a value for the given slot type. Null values are passed through unchanged.
+     */
+    public static String escape(String value, SlotType type) {
+        if (value == null) {
+            return null;
+        }
+        if (type == SlotType.URL && !hasAllowedScheme(value)) {
+            return BLOCKED_URL;
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (replacement(value.charAt(i), type) != null) {
+                return escapeFrom(value, i, type);
+            }
+        }
+        return value;
+    }
+
+    private static String escapeFrom(String value, int firstEscape, SlotType type) {
+        int length = value.length();
+        StringBuilder escaped = new StringBuilder(length + 16);
+        escaped.append(value, 0, firstEscape);
+        for (int i = firstEscape; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement = replacement(c, type);
+            if (replacement == null) {
+                escaped.append(c);
+            } else {
+                escaped.append(replacement);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String replacement(char c, SlotType type) {
+        switch (c) {
+            case '&':
+                return "&amp;";
+            case '<':
+                return type == SlotType.URL ? "%3C" : "&lt;";
+            case '>':
+                return type == SlotType.URL ? "%3E" : "&gt;";
+            case '"':
+                return type == SlotType.HTML_TEXT ? null : type == SlotType.URL ? "%22" : "&quot;";
+            case '\'':
+                return type == SlotType.HTML_TEXT ? null : type == SlotType.URL ? "%27" : "&#39;";
+            case ' ':
+                return type == SlotType.URL ? "%20" : null;
+            case '`':
+                return type == SlotType.URL ? "%60" : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Only http(s), mailto and relative URLs may be interpolated into links;
+     * anything else (javascript:, data:, ...) is blocked.
+     */
+    private static boolean hasAllowedScheme(String url) {
+        int length = url.length();
+        for (int i = 0; i < length; i++) {
+            char c = url.charAt(i);
+            if (c == ':') {
+                return (i == 4 && url.regionMatches(true, 0, "http", 0, 4))
+                    || (i == 5 && url.regionMatches(true, 0, "https", 0, 5))
+                    || (i == 6 && url.regionMatches(true, 0, "mailto", 0, 6));
+            }
+            if (c == '/' || c == '?' || c == '#') {
+                return true;
+            }
+        }
+        return true;
+    }
+}
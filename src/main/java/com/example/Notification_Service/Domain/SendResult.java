@@ -0,0 +1,30 @@
+package com.example.Notification_Service.Domain;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Outcome of handing one email to a provider.
+ * @param messageId The provider's id for the accepted message, if it returns one
+ * @param latency Time from starting the send until the provider answered
+ * @param error Why the send failed, or null if it succeeded
+ */
+public record SendResult(String messageId, Duration latency, Throwable error) {
+
+    public static SendResult success(String messageId, Duration latency) {
+        return new SendResult(messageId, latency, null);
+    }
+
+    public static SendResult failure(Throwable error, Duration latency) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return new SendResult(null, latency, cause);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public String errorMessage() {
+        return error == null ? null : error.getMessage();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.Notification_Service.Domain;
+
+/**
+ * Where a template slot sits in the HTML, which decides how its value is escaped.
+ */
+public enum SlotType {
+    /** Element content, e.g. {@code <strong>%s</strong>}. */
+    HTML_TEXT,
+    /** A quoted attribute value, e.g. {@code alt="%s Logo"}. */
+    ATTRIBUTE,
+    /** A URL attribute value, e.g. {@code href="%s"} or {@code src="%s"}. */
+    URL
+}
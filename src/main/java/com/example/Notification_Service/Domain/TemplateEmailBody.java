@@ -0,0 +1,99 @@
+package com.example.Notification_Service.Domain;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.NoSuchElementException;
+
+/**
+ * An email body made of a compiled {@link EmailTemplate} and the escaped values for its slots.
+ * Static segments are shared, pre-encoded UTF-8 bytes; only the slot values are encoded
+ * per message, and only once no matter how many times the body is streamed.
+ */
+public final class TemplateEmailBody implements EmailBody {
+
+    private final EmailTemplate template;
+    private final String[] values;
+    private byte[][] encodedValues;
+
+    TemplateEmailBody(EmailTemplate template, String[] values) {
+        this.template = template;
+        this.values = values;
+    }
+
+    public EmailTemplate template() {
+        return template;
+    }
+
+    public String value(int slot) {
+        return values[slot];
+    }
+
+    @Override
+    public String asString() {
+        return template.renderEscaped(values);
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        byte[][] encoded = encodedValues();
+        out.write(template.encodedSegment(0));
+        for (int i = 0; i < encoded.length; i++) {
+            out.write(encoded[i]);
+            out.write(template.encodedSegment(i + 1));
+        }
+    }
+
+    @Override
+    public InputStream openStream() {
+        byte[][] encoded = encodedValues();
+        int chunkCount = encoded.length * 2 + 1;
+        return new SequenceInputStream(new Enumeration<>() {
+            private int next;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < chunkCount;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                if (next >= chunkCount) {
+                    throw new NoSuchElementException();
+                }
+                int chunk = next++;
+                byte[] bytes = chunk % 2 == 0 ? template.encodedSegment(chunk / 2) : encoded[chunk / 2];
+                return new ByteArrayInputStream(bytes);
+            }
+        });
+    }
+
+    private byte[][] encodedValues() {
+        byte[][] encoded = encodedValues;
+        if (encoded == null) {
+            encoded = new byte[values.length][];
+            for (int i = 0; i < values.length; i++) {
+                encoded[i] = String.valueOf(values[i]).getBytes(StandardCharsets.UTF_8);
+            }
+            encodedValues = encoded;
+        }
+        return encoded;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TemplateEmailBody other)) return false;
+        return template == other.template && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(template) + Arrays.hashCode(values);
+    }
+}
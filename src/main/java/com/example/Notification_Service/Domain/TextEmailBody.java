@@ -0,0 +1,28 @@
+package com.example.Notification_Service.Domain;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An email body backed by a plain String.
+ */
+public record TextEmailBody(String text) implements EmailBody {
+
+    @Override
+    public String asString() {
+        return text;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public InputStream openStream() {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -5,4 +5,5 @@ import java.time.Instant;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record UserRegisteredEvent(String eventType, String userId, String email, String verificationToken, String firstName, Instant timestamp) {
+    public static final String USER_REGISTERED = "UserRegistered";
 }
@@ -0,0 +1,48 @@
+package com.example.Notification_Service.Infrastructure;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+
+/**
+ * A {@link RetryPolicy} that pays for every retry its delegate allows from the {@link RetryBudget}.
+ * The budget is asked once per failure, when the failure is registered, since {@code canRetry}
+ * is evaluated more than once per attempt.
+ */
+class BudgetedRetryPolicy implements RetryPolicy {
+
+    private final RetryPolicy delegate;
+    private final RetryBudget retryBudget;
+
+    BudgetedRetryPolicy(RetryPolicy delegate, RetryBudget retryBudget) {
+        this.delegate = delegate;
+        this.retryBudget = retryBudget;
+    }
+
+    @Override
+    public boolean canRetry(RetryContext context) {
+        return delegate.canRetry(context);
+    }
+
+    @Override
+    public RetryContext open(RetryContext parent) {
+        return delegate.open(parent);
+    }
+
+    @Override
+    public void close(RetryContext context) {
+        delegate.close(context);
+    }
+
+    @Override
+    public void registerThrowable(RetryContext context, Throwable throwable) {
+        delegate.registerThrowable(context, throwable);
+        if (delegate.canRetry(context) && !retryBudget.tryAcquire(RetryBudget.PROVIDER)) {
+            context.setExhaustedOnly();
+        }
+    }
+
+    @Override
+    public int getMaxAttempts() {
+        return delegate.getMaxAttempts();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Domain.EmailBody;
+import jakarta.activation.DataSource;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Read-only activation {@link DataSource} over an {@link EmailBody}.
+ * JavaMail pulls the body through {@link #getInputStream()} while writing the MIME part,
+ * so the UTF-8 bytes go straight to the SMTP stream without an intermediate String.
+ */
+public class EmailBodyDataSource implements DataSource {
+
+    static final String HTML_CONTENT_TYPE = "text/html;charset=UTF-8";
+
+    private final EmailBody body;
+
+    public EmailBodyDataSource(EmailBody body) {
+        this.body = body;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return body.openStream();
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        throw new UnsupportedOperationException("Email bodies are read-only");
+    }
+
+    @Override
+    public String getContentType() {
+        return HTML_CONTENT_TYPE;
+    }
+
+    @Override
+    public String getName() {
+        return "email-body";
+    }
+}
@@ -1,7 +1,8 @@
 package com.example.Notification_Service.Infrastructure;
 
-import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,19 +11,27 @@ import java.time.Duration;
 @Configuration
 public class EmailCircuitBreakerConfig {
 
+    /**
+     * Registry of the per-provider breakers used by {@link RoutingEmailSender}. A provider is taken out
+     * of rotation once half of its last 10 calls failed (after at least 5), for 30 seconds, and then
+     * let back in after 3 trial calls succeed. Each setting can be overridden by its property.
+     */
     @Bean
-    public CircuitBreaker emailCircuitBreaker() {
-        io.github.resilience4j.circuitbreaker.CircuitBreakerConfig config =
-            io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.custom()
-                .failureRateThreshold(50.0f) // Open circuit if 50% of calls fail
-                .waitDurationInOpenState(Duration.ofSeconds(30)) // Wait 30 seconds before trying again
-                .slidingWindowSize(10) // Consider last 10 calls
-                .minimumNumberOfCalls(5) // Need at least 5 calls before opening
-                .permittedNumberOfCallsInHalfOpenState(3) // Allow 3 calls when half-open
-                .automaticTransitionFromOpenToHalfOpenEnabled(true)
-                .build();
-
-        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
-        return registry.circuitBreaker("emailService");
+    public CircuitBreakerRegistry circuitBreakerRegistry(
+            @Value("${resilience4j.circuitbreaker.configs.default.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${resilience4j.circuitbreaker.configs.default.wait-duration-in-open-state:30s}") Duration waitInOpenState,
+            @Value("${resilience4j.circuitbreaker.configs.default.sliding-window-size:10}") int slidingWindowSize,
+            @Value("${resilience4j.circuitbreaker.configs.default.minimum-number-of-calls:5}") int minimumNumberOfCalls,
+            @Value("${resilience4j.circuitbreaker.configs.default.permitted-number-of-calls-in-half-open-state:3}") int halfOpenCalls,
+            @Value("${resilience4j.circuitbreaker.configs.default.automatic-transition-from-open-to-half-open-enabled:true}")
+            boolean automaticHalfOpen) {
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .failureRateThreshold(failureRateThreshold)
+            .waitDurationInOpenState(waitInOpenState)
+            .slidingWindowSize(slidingWindowSize)
+            .minimumNumberOfCalls(minimumNumberOfCalls)
+            .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+            .automaticTransitionFromOpenToHalfOpenEnabled(automaticHalfOpen)
+            .build());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.example.Notification_Service.Infrastructure;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document(collection = "email_deliveries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailDelivery {
+    // The delivery key; _id is unique, so concurrent duplicates can't both be recorded
+    @Id
+    private String id;
+    private Instant deliveredAt;
+}
@@ -0,0 +1,14 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Application.ports.EmailSender;
+
+/**
+ * A concrete email provider that {@link RoutingEmailSender} can route to.
+ */
+public interface EmailProvider extends EmailSender {
+
+    /**
+     * Stable provider name, also used as the name of its circuit breaker.
+     */
+    String name();
+}
@@ -1,13 +1,20 @@
 package com.example.Notification_Service.Infrastructure;
 
+import com.example.Notification_Service.Domain.EmailMessage;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
 
+/**
+ * One send attempt. Stored under short field names, since at millions of documents the
+ * repeated keys are a large part of every document and index entry; a null error
+ * message is not stored at all. Indexes and retention are set up by {@link EmailSendLogIndexes}.
+ */
 @Document(collection = "email_send_logs")
 @Data
 @NoArgsConstructor
@@ -15,9 +22,21 @@ import java.time.LocalDateTime;
 public class EmailSendLog {
     @Id
     private String id;
+    @Field("u")
     private String userId;
+    @Field("e")
     private String email;
+    @Field("a")
+    private String applicationId;
+    @Field("ok")
     private boolean success;
+    @Field("err")
     private String errorMessage;
+    @Field("ts")
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+
+    public static EmailSendLog of(EmailMessage emailMessage, boolean success, String errorMessage) {
+        return new EmailSendLog(null, emailMessage.userId(), emailMessage.to(), emailMessage.applicationId(),
+            success, errorMessage, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.Notification_Service.Infrastructure;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Creates or verifies the indexes of {@code email_send_logs}: lookups by user, email
+ * address and application, newest first (with {@code _id} as the tiebreaker that keyset
+ * pagination sorts on, so pages never need an in-memory sort), and a TTL index on the timestamp that enforces the
+ * retention period. A changed retention is applied to the existing TTL index in place.
+ * <p>
+ * Documents written before the compact field names keep {@code userId}, {@code timestamp} and so on,
+ * which neither the TTL index nor the lookups see. Renaming them to the short names in one
+ * {@code updateMany} is a one-off migration: it is off by default, since even finding no legacy
+ * documents takes a collection scan, and is meant to be turned on for a single instance once.
+ */
+@Component
+public class EmailSendLogIndexes {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailSendLogIndexes.class);
+
+    static final String USER_INDEX = "u_ts_id";
+    static final String EMAIL_INDEX = "e_ts_id";
+    static final String APPLICATION_INDEX = "a_ts_id";
+    static final String TTL_INDEX = "ts_ttl";
+    // Field names before EmailSendLog was stored compactly; there was no application id then
+    static final Map<String, String> LEGACY_FIELDS = Map.of(
+        "userId", "u", "email", "e", "success", "ok", "errorMessage", "err", "timestamp", "ts");
+
+    private final Optional<MongoOperations> mongoOperations;
+    private final Duration retention;
+    private final boolean renameLegacyFields;
+
+    public EmailSendLogIndexes(
+            Optional<MongoOperations> mongoOperations,
+            @Value("${notification.send-log.retention:30d}") Duration retention,
+            @Value("${notification.send-log.rename-legacy-fields:false}") boolean renameLegacyFields) {
+        this.mongoOperations = mongoOperations;
+        this.retention = retention;
+        this.renameLegacyFields = renameLegacyFields;
+    }
+
+    /**
+     * Runs off the startup path; index builds on a large collection can take a while.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        mongoOperations.ifPresent(mongo -> CompletableFuture.runAsync(() -> {
+            try {
+                if (renameLegacyFields) {
+                    renameLegacyFields(mongo);
+                }
+                ensureIndexes(mongo);
+            } catch (Exception e) {
+                logger.warn("Could not create indexes on email_send_logs: {}", e.getMessage());
+            }
+        }));
+    }
+
+    void ensureIndexes(MongoOperations mongo) {
+        IndexOperations indexOps = mongo.indexOps(EmailSendLog.class);
+        indexOps.createIndex(byNewest("u").named(USER_INDEX));
+        indexOps.createIndex(byNewest("e").named(EMAIL_INDEX));
+        // Account emails have no application id, so they stay out of this index
+        indexOps.createIndex(byNewest("a").named(APPLICATION_INDEX)
+            .partial(PartialIndexFilter.of(where("a").exists(true))));
+
+        Optional<IndexInfo> ttlIndex = indexOps.getIndexInfo().stream()
+            .filter(index -> TTL_INDEX.equals(index.getName()))
+            .findFirst();
+        if (ttlIndex.isEmpty()) {
+            indexOps.createIndex(new Index().on("ts", Sort.Direction.ASC).named(TTL_INDEX).expire(retention));
+            logger.info("Created TTL index on email_send_logs, retention {}", retention);
+        } else if (!ttlIndex.get().getExpireAfter().map(retention::equals).orElse(false)) {
+            // createIndex would fail on the changed option, collMod updates it without a rebuild
+            mongo.executeCommand(new Document("collMod", mongo.getCollectionName(EmailSendLog.class))
+                .append("index", new Document("name", TTL_INDEX).append("expireAfterSeconds", retention.toSeconds())));
+            logger.info("Updated TTL index on email_send_logs to retention {}", retention);
+        }
+    }
+
+    void renameLegacyFields(MongoOperations mongo) {
+        Update rename = new Update();
+        LEGACY_FIELDS.forEach(rename::rename);
+        // By collection name, so the legacy names are not mapped onto the short ones
+        long renamed = mongo.updateMulti(Query.query(where("timestamp").exists(true)), rename,
+            mongo.getCollectionName(EmailSendLog.class)).getModifiedCount();
+        if (renamed > 0) {
+            logger.info("Renamed legacy fields of {} email_send_logs documents", renamed);
+        }
+    }
+
+    private static Index byNewest(String field) {
+        return new Index().on(field, Sort.Direction.ASC).on("ts", Sort.Direction.DESC).on("_id", Sort.Direction.DESC);
+    }
+}
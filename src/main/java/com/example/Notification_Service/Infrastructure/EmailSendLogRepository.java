@@ -1,6 +0,0 @@
-package com.example.Notification_Service.Infrastructure;
-
-import org.springframework.data.mongodb.repository.MongoRepository;
-
-public interface EmailSendLogRepository extends MongoRepository<EmailSendLog, String> {
-}
\ No newline at end of file
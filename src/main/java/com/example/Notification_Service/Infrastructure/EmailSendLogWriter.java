@@ -0,0 +1,177 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Application.jfr.SendLogWrittenEvent;
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes {@link EmailSendLog}s off the send path: entries go into a bounded buffer and a
+ * background thread inserts them with unordered bulk writes, whenever a batch fills up or
+ * the flush interval passes. When the buffer is full new entries are dropped and counted,
+ * so a slow Mongo never slows down sending. Whatever is buffered is flushed on shutdown.
+ */
+@Component
+public class EmailSendLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailSendLogWriter.class);
+
+    private final Optional<MongoOperations> mongoOperations;
+    private final NotificationMetrics notificationMetrics;
+    private final ArrayBlockingQueue<EmailSendLog> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public EmailSendLogWriter(
+            Optional<MongoOperations> mongoOperations,
+            NotificationMetrics notificationMetrics,
+            @Value("${notification.send-log.buffer-capacity:10000}") int bufferCapacity,
+            @Value("${notification.send-log.batch-size:500}") int batchSize,
+            @Value("${notification.send-log.flush-interval:1s}") Duration flushInterval) {
+        this.mongoOperations = mongoOperations;
+        this.notificationMetrics = notificationMetrics;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.flusher = new Thread(this::flushLoop, "send-log-writer");
+        this.flusher.setDaemon(true);
+        if (mongoOperations.isPresent()) {
+            this.flusher.start();
+        }
+    }
+
+    /**
+     * Buffer a log entry for the next bulk write; never blocks.
+     * @return false if the buffer was full and the entry was dropped
+     */
+    public boolean write(EmailSendLog log) {
+        if (mongoOperations.isEmpty()) {
+            return true;
+        }
+        if (buffer.offer(log)) {
+            return true;
+        }
+        notificationMetrics.countLogDropped();
+        // Log every thousandth drop only; the counter has the exact number
+        if (dropped.getAndIncrement() % 1000 == 0) {
+            logger.warn("Email send log buffer full, dropping entries ({} dropped so far)", dropped.get());
+        }
+        return false;
+    }
+
+    public long writtenCount() {
+        return written.get();
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    public long failedCount() {
+        return failed.get();
+    }
+
+    public int bufferedCount() {
+        return buffer.size();
+    }
+
+    private void flushLoop() {
+        List<EmailSendLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                EmailSendLog first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    EmailSendLog next = remaining > 0 ? buffer.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    buffer.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            insert(batch);
+            batch.clear();
+        }
+    }
+
+    private void insert(List<EmailSendLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        SendLogWrittenEvent event = new SendLogWrittenEvent(batch.size());
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            mongoOperations.get().bulkOps(BulkOperations.BulkMode.UNORDERED, EmailSendLog.class)
+                .insert(batch)
+                .execute();
+            written.addAndGet(batch.size());
+            notificationMetrics.recordLogWrite(batch.size(), 0, System.nanoTime() - start);
+        } catch (BulkOperationException e) {
+            // Unordered: everything but the reported errors was inserted
+            failed.addAndGet(e.getErrors().size());
+            written.addAndGet(batch.size() - e.getErrors().size());
+            notificationMetrics.recordLogWrite(batch.size() - e.getErrors().size(), e.getErrors().size(),
+                System.nanoTime() - start);
+            event.failed = e.getErrors().size();
+            logger.warn("Could not write {} email send logs: {}", e.getErrors().size(), e.getMessage());
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            notificationMetrics.recordLogWrite(0, batch.size(), System.nanoTime() - start);
+            event.failed = batch.size();
+            logger.warn("Could not write {} email send logs: {}", batch.size(), e.getMessage());
+        } finally {
+            event.commit();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (mongoOperations.isEmpty()) {
+            return;
+        }
+        // Not interrupted, so an insert in progress completes; the flusher notices within one interval
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<EmailSendLog> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            insert(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+        logger.info("Email send log writer stopped: {} written, {} dropped, {} failed",
+            written.get(), dropped.get(), failed.get());
+    }
+}
@@ -1,58 +1,104 @@
 package com.example.Notification_Service.Infrastructure;
 
-import com.example.Notification_Service.Application.ports.EmailSender;
+import com.example.Notification_Service.Application.jfr.EmailSentEvent;
 import com.example.Notification_Service.Domain.EmailMessage;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import com.example.Notification_Service.Domain.SendResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Primary;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import jakarta.activation.DataHandler;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 @Component
-@Primary
-public class JavaMailEmailProvider implements EmailSender {
+public class JavaMailEmailProvider implements EmailProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JavaMailEmailProvider.class);
 
     private final JavaMailSender mailSender;
     private final String fromEmail;
-    private final Optional<EmailSendLogRepository> logRepository;
+    private final Optional<EmailSendLogWriter> sendLogWriter;
+    // Caps concurrent SMTP sends on every path, which matters once callers run on virtual threads
+    private final Semaphore sendPermits;
+    // Persistent SMTP sessions; without it every send opens a new connection
+    private final Optional<SmtpTransportPool> transportPool;
+    // Groups concurrent sends into one SMTP session when enabled
+    private final Optional<SmtpBatchSender> batchSender;
+    // Runs blocking sends for the async API: a virtual thread per send, or a pool of max-in-flight threads
+    private final Executor asyncSendExecutor;
 
     public JavaMailEmailProvider(
             JavaMailSender mailSender,
             @Value("${spring.mail.username}") String fromEmail,
-            Optional<EmailSendLogRepository> logRepository) {
+            Optional<EmailSendLogWriter> sendLogWriter,
+            @Value("${notification.email.javamail.max-in-flight:10}") int maxInFlight,
+            Optional<SmtpTransportPool> transportPool,
+            Optional<SmtpBatchSender> batchSender,
+            Environment environment) {
         this.mailSender = mailSender;
         this.fromEmail = fromEmail;
-        this.logRepository = logRepository;
+        this.sendLogWriter = sendLogWriter;
+        this.sendPermits = new Semaphore(maxInFlight);
+        this.transportPool = transportPool;
+        this.batchSender = batchSender;
+        this.asyncSendExecutor = Threading.VIRTUAL.isActive(environment)
+            ? new VirtualThreadTaskExecutor("javamail-send-")
+            : Executors.newFixedThreadPool(maxInFlight, new CustomizableThreadFactory("javamail-send-"));
     }
 
     @Override
-    @CircuitBreaker(name = "emailService", fallbackMethod = "sendEmailFallback")
-    @Retryable(value = RuntimeException.class, maxAttempts = 3)
+    public String name() {
+        return "javamail";
+    }
+
+    @Override
+    @Retryable(interceptor = "providerRetryInterceptor")
     public void sendEmail(EmailMessage emailMessage) {
         logger.info("Attempting to send email to userId: {}", emailMessage.userId());
-        EmailSendLog log = new EmailSendLog(null, emailMessage.userId(), emailMessage.to(), false, null, LocalDateTime.now());
+        EmailSendLog log = EmailSendLog.of(emailMessage, false, null);
+        EmailSentEvent sent = new EmailSentEvent(name(), emailMessage.eventType());
+        sent.begin();
 
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            MimeMessage message = createMimeMessage(emailMessage);
 
-            helper.setFrom(fromEmail);
-            helper.setTo(emailMessage.to());
-            helper.setSubject(emailMessage.subject());
-            helper.setText(emailMessage.body(), true); // true = HTML content
-
-            mailSender.send(message);
+            sendPermits.acquireUninterruptibly();
+            try {
+                if (batchSender.isPresent()) {
+                    awaitBatch(batchSender.get().submit(message));
+                } else if (transportPool.isPresent()) {
+                    transportPool.get().send(message);
+                } else {
+                    mailSender.send(message);
+                }
+            } finally {
+                sendPermits.release();
+            }
             log.setSuccess(true);
+            sent.success = true;
             logger.info("Email sent successfully to userId: {}", emailMessage.userId());
 
         } catch (Exception e) {
@@ -61,21 +107,187 @@ public class JavaMailEmailProvider implements EmailSender {
             logger.error("Error sending email to userId: {}, error: {}", emailMessage.userId(), e.getMessage());
             throw new RuntimeException("Error sending email", e);
         } finally {
-            logRepository.ifPresent(repo -> repo.save(log));
+            sent.commit();
+            sendLogWriter.ifPresent(writer -> writer.write(log));
+        }
+    }
+
+    /**
+     * Sends through the batch sender when enabled, otherwise directly, from the async send executor
+     * so callers never block, even while waiting for a send permit. Not retried here: failures go
+     * back to the caller (and the Kafka retry tiers) instead.
+     */
+    @Override
+    public CompletableFuture<SendResult> sendEmailAsync(EmailMessage emailMessage) {
+        long start = System.nanoTime();
+        EmailSentEvent event = new EmailSentEvent(name(), emailMessage.eventType());
+        event.begin();
+        MimeMessage message;
+        try {
+            message = createMimeMessage(emailMessage);
+        } catch (MessagingException e) {
+            return record(emailMessage, CompletableFuture.failedFuture(e), null, start, event);
         }
+        CompletableFuture<Void> sent = CompletableFuture.runAsync(() -> sendWithPermit(message), asyncSendExecutor);
+        return record(emailMessage, sent, message, start, event);
     }
 
     /**
-     * Fallback method called when circuit breaker is OPEN
-     * Logs the failure and continues without throwing exception
+     * Sends all emails over one SMTP session: a pooled connection when the pool is enabled,
+     * otherwise a single {@code JavaMailSender.send(MimeMessage...)} call. The session takes one send permit.
      */
-    public void sendEmailFallback(EmailMessage emailMessage, Throwable throwable) {
-        logger.warn("Circuit breaker is OPEN for email service. Skipping email send for userId: {} due to: {}",
-                   emailMessage.userId(), throwable.getMessage());
-
-        // Still log the attempt as failed
-        EmailSendLog log = new EmailSendLog(null, emailMessage.userId(), emailMessage.to(), false,
-                                          "Circuit breaker open: " + throwable.getMessage(), LocalDateTime.now());
-        logRepository.ifPresent(repo -> repo.save(log));
+    @Override
+    public CompletableFuture<List<SendResult>> sendBatch(List<EmailMessage> emailMessages) {
+        if (batchSender.isPresent()) {
+            // Submitted together, the messages land in the same micro-batches anyway
+            return EmailProvider.super.sendBatch(emailMessages);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            sendPermits.acquireUninterruptibly();
+            try {
+                return sendInOneSession(emailMessages);
+            } finally {
+                sendPermits.release();
+            }
+        }, asyncSendExecutor);
+    }
+
+    private List<SendResult> sendInOneSession(List<EmailMessage> emailMessages) {
+        long start = System.nanoTime();
+        EmailSentEvent[] events = new EmailSentEvent[emailMessages.size()];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new EmailSentEvent(name(), emailMessages.get(i).eventType());
+            events[i].begin();
+        }
+        Exception[] failures = new Exception[emailMessages.size()];
+        List<MimeMessage> messages = new ArrayList<>(emailMessages.size());
+        List<Integer> positions = new ArrayList<>(emailMessages.size());
+        for (int i = 0; i < emailMessages.size(); i++) {
+            try {
+                messages.add(createMimeMessage(emailMessages.get(i)));
+                positions.add(i);
+            } catch (MessagingException e) {
+                failures[i] = e;
+            }
+        }
+
+        if (transportPool.isPresent()) {
+            List<MessagingException> sendFailures = transportPool.get().sendBatch(messages);
+            for (int j = 0; j < messages.size(); j++) {
+                failures[positions.get(j)] = sendFailures.get(j);
+            }
+        } else if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                Map<Object, Exception> failed = e.getFailedMessages();
+                for (int j = 0; j < messages.size(); j++) {
+                    failures[positions.get(j)] = failed.isEmpty() ? e : failed.get(messages.get(j));
+                }
+            } catch (RuntimeException e) {
+                positions.forEach(position -> failures[position] = e);
+            }
+        }
+
+        Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        List<SendResult> results = new ArrayList<>(emailMessages.size());
+        for (int i = 0; i < emailMessages.size(); i++) {
+            int position = positions.indexOf(i);
+            SendResult result = failures[i] == null
+                ? SendResult.success(messageId(messages.get(position)), latency)
+                : SendResult.failure(failures[i], latency);
+            events[i].success = result.isSuccess();
+            events[i].commit();
+            saveLog(emailMessages.get(i), result);
+            results.add(result);
+        }
+        return results;
+    }
+
+    // The permit is held until the server answered, so queued micro-batch messages count too
+    private void sendWithPermit(MimeMessage message) {
+        sendPermits.acquireUninterruptibly();
+        try {
+            if (batchSender.isPresent()) {
+                batchSender.get().submit(message).join();
+            } else {
+                sendNow(message);
+            }
+        } finally {
+            sendPermits.release();
+        }
+    }
+
+    private void sendNow(MimeMessage message) {
+        try {
+            if (transportPool.isPresent()) {
+                transportPool.get().send(message);
+            } else {
+                mailSender.send(message);
+            }
+        } catch (MessagingException e) {
+            throw new MailSendException("Error sending email", e);
+        }
+    }
+
+    private CompletableFuture<SendResult> record(EmailMessage emailMessage, CompletableFuture<Void> sent,
+                                                 MimeMessage message, long start, EmailSentEvent event) {
+        return sent.handle((ignored, error) -> {
+            Duration latency = Duration.ofNanos(System.nanoTime() - start);
+            SendResult result = error == null
+                ? SendResult.success(messageId(message), latency)
+                : SendResult.failure(error, latency);
+            event.success = result.isSuccess();
+            event.commit();
+            saveLog(emailMessage, result);
+            if (!result.isSuccess()) {
+                logger.error("Error sending email to userId: {}, error: {}", emailMessage.userId(), result.errorMessage());
+                throw new CompletionException(result.error());
+            }
+            logger.info("Email sent successfully to userId: {} in {} ms", emailMessage.userId(), latency.toMillis());
+            return result;
+        });
+    }
+
+    private void saveLog(EmailMessage emailMessage, SendResult result) {
+        EmailSendLog log = EmailSendLog.of(emailMessage, result.isSuccess(), result.errorMessage());
+        sendLogWriter.ifPresent(writer -> writer.write(log));
+    }
+
+    MimeMessage createMimeMessage(EmailMessage emailMessage) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(emailMessage.to());
+        helper.setSubject(emailMessage.subject());
+        // Stream the HTML body into the MIME part instead of helper.setText(String)
+        MimeBodyPart htmlPart = new MimeBodyPart();
+        htmlPart.setDataHandler(new DataHandler(new EmailBodyDataSource(emailMessage.content())));
+        helper.getMimeMultipart().addBodyPart(htmlPart);
+        return message;
+    }
+
+    private static String messageId(MimeMessage message) {
+        try {
+            return message == null ? null : message.getMessageID();
+        } catch (MessagingException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (asyncSendExecutor instanceof ExecutorService pool) {
+            pool.shutdown();
+        }
+    }
+
+    private static void awaitBatch(CompletableFuture<Void> result) throws Exception {
+        try {
+            result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
     }
 }
\ No newline at end of file
@@ -1,95 +1,349 @@
 package com.example.Notification_Service.Infrastructure;
 
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
-import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
-import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.backoff.FixedBackOff;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Configuration
 public class KafkaConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(KafkaConfig.class);
+
+    private static final List<String> MAIN_TOPICS = List.of("user-events", "application-events");
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${notification.kafka.batch.max-records:500}")
+    private int batchMaxRecords;
+
+    @Value("${notification.kafka.batch.concurrency:8}")
+    private int batchConcurrency;
+
+    @Value("${notification.kafka.retry.tiers:10s,2m}")
+    private String[] retryTierDelays;
+
+    @Value("${notification.kafka.retry.default-partitions:1}")
+    private int retryDefaultPartitions;
+
+    @Value("${notification.kafka.retry.describe-timeout:5s}")
+    private Duration describeTimeout;
+
+    // spring.threads.virtual.enabled=true on Java 21+ runs listeners and workers on virtual threads
+    private final boolean virtualThreads;
+    private final NotificationMetrics notificationMetrics;
+    private final RetryBudget retryBudget;
+
+    public KafkaConfig(Environment environment, NotificationMetrics notificationMetrics, RetryBudget retryBudget) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.notificationMetrics = notificationMetrics;
+        this.retryBudget = retryBudget;
+    }
+
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, byte[]> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // Payloads stay raw bytes; listeners read the event type first and bind only what they handle
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); // Manual acknowledgment
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, byte[]> producerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class); // DLT copies of consumed records
         return new DefaultKafkaProducerFactory<>(props);
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    public RetryTiers retryTiers() {
+        return new RetryTiers(List.of(retryTierDelays));
+    }
+
+    /**
+     * Declares the retry tiers and DLT of each main topic, so retries keep working on brokers with
+     * topic auto-creation disabled. They get as many partitions as their main topic, or
+     * notification.kafka.retry.default-partitions if it cannot be described at startup.
+     * Topics that already exist are left as they are.
+     */
+    @Bean
+    public KafkaAdmin.NewTopics retryTierTopics(KafkaAdmin kafkaAdmin) {
+        RetryTiers tiers = retryTiers();
+        Map<String, Integer> mainPartitions = partitionsOfMainTopics(kafkaAdmin);
+        List<NewTopic> topics = new ArrayList<>();
+        for (String topic : MAIN_TOPICS) {
+            int partitions = mainPartitions.getOrDefault(topic, retryDefaultPartitions);
+            for (int tier = 0; tier < tiers.size(); tier++) {
+                topics.add(TopicBuilder.name(tiers.topic(topic, tier)).partitions(partitions).build());
+            }
+            topics.add(TopicBuilder.name(tiers.deadLetterTopic(topic)).partitions(partitions).build());
+        }
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+
+    // One bounded lookup, so an unreachable broker delays startup by describe-timeout at most
+    private Map<String, Integer> partitionsOfMainTopics(KafkaAdmin kafkaAdmin) {
+        Map<String, Object> config = new HashMap<>(kafkaAdmin.getConfigurationProperties());
+        config.put(AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, (int) describeTimeout.toMillis());
+        config.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, (int) describeTimeout.toMillis());
+        Map<String, Integer> partitions = new HashMap<>();
+        Admin admin = Admin.create(config);
+        try {
+            Map<String, KafkaFuture<TopicDescription>> descriptions = admin.describeTopics(MAIN_TOPICS).topicNameValues();
+            long deadline = System.nanoTime() + describeTimeout.toNanos();
+            for (String topic : MAIN_TOPICS) {
+                try {
+                    long remaining = Math.max(0, deadline - System.nanoTime());
+                    partitions.put(topic, descriptions.get(topic).get(remaining, TimeUnit.NANOSECONDS).partitions().size());
+                } catch (ExecutionException | TimeoutException e) {
+                    logger.warn("Could not describe topic {}, declaring its retry topics with {} partition(s): {}",
+                        topic, retryDefaultPartitions, e instanceof ExecutionException ? e.getCause().getMessage() : "timed out");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            admin.close(Duration.ZERO);
+        }
+        return partitions;
+    }
+
+    /**
+     * Recovers failed records by publishing them to the next retry tier of their topic,
+     * stamped with the time they become due, and to the DLT after the last tier.
+     * Partition -1 lets the key decide, so tiers may have fewer partitions than the main topics.
+     * Every listener mode recovers through here, so this is where retries and dead letters are counted.
+     * A hop to the next tier is a retry paid from the {@link RetryBudget}; without budget left the
+     * record goes straight to the DLT.
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer() {
+        RetryTiers tiers = retryTiers();
+        return new DeadLetterPublishingRecoverer(kafkaTemplate(), (record, ex) -> {
+            String baseTopic = tiers.baseTopic(record.topic());
+            String destination = tiers.nextTopic(record.topic());
+            if (!destination.endsWith(RetryTiers.DLT_SUFFIX) && !retryBudget.tryAcquire(RetryBudget.KAFKA)) {
+                logger.warn("Retry budget exhausted, sending record {}-{}@{} to the DLT",
+                    record.topic(), record.partition(), record.offset());
+                destination = tiers.deadLetterTopic(record.topic());
+            }
+            if (destination.endsWith(RetryTiers.DLT_SUFFIX)) {
+                notificationMetrics.countDeadLetter(baseTopic);
+            } else {
+                notificationMetrics.countRetry(baseTopic, destination);
+            }
+            return new TopicPartition(destination, -1);
+        }) {
+            // The due time depends on where the record was actually sent, so it is stamped here
+            @Override
+            protected ProducerRecord<Object, Object> createProducerRecord(ConsumerRecord<?, ?> record,
+                    TopicPartition topicPartition, Headers headers, byte[] key, byte[] value) {
+                Instant dueAt = tiers.dueAt(topicPartition.topic(), Instant.now());
+                if (dueAt != null) {
+                    headers.add(RetryTiers.DUE_AT_HEADER, RetryTiers.encodeDueAt(dueAt));
+                }
+                return super.createProducerRecord(record, topicPartition, headers, key, value);
+            }
+        };
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        applyListenerThreading(factory);
 
-        // Configure error handling with dead letter topic
+        // No in-partition back off: a failed record moves straight to its next retry tier
         DefaultErrorHandler errorHandler = new DefaultErrorHandler(
-            new DeadLetterPublishingRecoverer(kafkaTemplate()),
-            new ExponentialBackOffWithMaxRetries(3) // 3 retries
+            deadLetterPublishingRecoverer(),
+            new FixedBackOff(0L, 0L)
         );
-        errorHandler.setRetryListeners((record, ex, deliveryAttempt) -> {
-            // Log retry attempts
-            System.err.println("Failed to process record: " + record.value() +
-                             ", attempt: " + deliveryAttempt + ", exception: " + ex.getMessage());
-        });
+        errorHandler.setRetryListeners((record, ex, deliveryAttempt) ->
+            // Log failures before they are handed to the retry tiers
+            logger.warn("Failed to process record {}-{}@{}, attempt {}: {}",
+                record.topic(), record.partition(), record.offset(), deliveryAttempt, ex.getMessage()));
         factory.setCommonErrorHandler(errorHandler);
 
         return factory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> manualAckContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> manualAckContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        applyListenerThreading(factory);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
 
         // Same error handler for manual ack
         DefaultErrorHandler errorHandler = new DefaultErrorHandler(
-            new DeadLetterPublishingRecoverer(kafkaTemplate()),
-            new ExponentialBackOffWithMaxRetries(3)
+            deadLetterPublishingRecoverer(),
+            new FixedBackOff(0L, 0L)
+        );
+        errorHandler.setRetryListeners((record, ex, deliveryAttempt) ->
+            logger.warn("Failed to process record {}-{}@{}, attempt {}: {}",
+                record.topic(), record.partition(), record.offset(), deliveryAttempt, ex.getMessage()));
+        factory.setCommonErrorHandler(errorHandler);
+
+        return factory;
+    }
+
+    /**
+     * Batch listener factory used when notification.kafka.listener-mode=batch.
+     * Offsets are committed once per poll after the whole batch has been handled.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        applyListenerThreading(factory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        Properties consumerOverrides = new Properties();
+        consumerOverrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxRecords);
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerOverrides);
+
+        // Single failed records are recovered by the listener. A BatchListenerFailedException (a record left
+        // unpublished at shutdown) commits the records before it; any other failure recovers the whole poll
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(
+            deadLetterPublishingRecoverer(),
+            new FixedBackOff(0L, 0L)
+        );
+        factory.setCommonErrorHandler(errorHandler);
+
+        return factory;
+    }
+
+    /**
+     * Record listener factory used when notification.kafka.listener-mode is key-ordered or pipeline.
+     * Listeners ack from worker threads in any order; with async acks the container
+     * commits only the highest contiguous acknowledged offset of each partition.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> asyncAckContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        applyListenerThreading(factory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(
+            deadLetterPublishingRecoverer(),
+            new FixedBackOff(0L, 0L)
+        );
+        factory.setCommonErrorHandler(errorHandler);
+
+        return factory;
+    }
+
+    /**
+     * Factory for the retry tier consumers. Listeners nack records that are not due yet,
+     * which pauses only that tier's consumer until the due time instead of sleeping.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> retryTierContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        applyListenerThreading(factory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(
+            deadLetterPublishingRecoverer(),
+            new FixedBackOff(0L, 0L)
         );
-        errorHandler.setRetryListeners((record, ex, deliveryAttempt) -> {
-            System.err.println("Failed to process record with manual ack: " + record.value() +
-                             ", attempt: " + deliveryAttempt + ", exception: " + ex.getMessage());
-        });
         factory.setCommonErrorHandler(errorHandler);
 
         return factory;
     }
-}
\ No newline at end of file
+
+    @Bean
+    public AsyncTaskExecutor batchProcessingExecutor() {
+        if (virtualThreads) {
+            // One virtual thread per record; in-flight sends are capped by the providers instead
+            return new VirtualThreadTaskExecutor("batch-worker-");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchConcurrency);
+        executor.setMaxPoolSize(batchConcurrency);
+        executor.setThreadNamePrefix("batch-worker-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    @Bean
+    public ThreadFactory keyOrderedWorkerThreadFactory() {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor("key-ordered-worker-").getVirtualThreadFactory();
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("key-ordered-worker-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private void applyListenerThreading(ConcurrentKafkaListenerContainerFactory<?, ?> factory) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("kafka-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Domain.EmailBody;
+import com.example.Notification_Service.Domain.EmailMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable local spool of emails that could not be handed to any provider: an append-only
+ * log of fixed-size, memory-mapped segment files. Every append is forced to disk before it
+ * returns, so the caller may ack the event straight away.
+ * <p>
+ * Records are {@code [length][crc][payload]}; a length of {@value #ROLLOVER} marks the end of
+ * a segment. Emails are read back in order and committed once sent; the committed position is
+ * kept in a checkpoint file, and segments are deleted as soon as they are fully drained. The
+ * number of segments is capped, so a long outage fills the spool instead of the disk.
+ * <p>
+ * Each record also carries how often sending it failed and when it is due again, so an email
+ * can be moved to a retry spool with its back off intact across restarts.
+ */
+public class MailSpool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailSpool.class);
+
+    private static final int HEADER_BYTES = 8;
+    private static final int ROLLOVER = -1;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final long NO_EVENT_TIME = Long.MIN_VALUE;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final FileChannel checkpointChannel;
+
+    private long writeSegment;
+    private int writeOffset;
+    private MappedByteBuffer writeBuffer;
+
+    private long readSegment;
+    private int readOffset;
+    private MappedByteBuffer readBuffer;
+
+    public MailSpool(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve("spool.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Spool directory " + directory + " is in use by another process");
+        }
+        this.checkpointChannel = FileChannel.open(directory.resolve("checkpoint"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+    }
+
+    /**
+     * Append an email and force it to disk.
+     * @throws SpoolFullException If every allowed segment is still waiting to be drained
+     */
+    public void append(EmailMessage emailMessage) throws IOException {
+        append(emailMessage, 0, null);
+    }
+
+    /**
+     * Append an email that already failed {@code attempts} times and force it to disk.
+     * @param retryAt When the email is due again, or null if it is due straight away
+     * @throws SpoolFullException If every allowed segment is still waiting to be drained
+     */
+    public synchronized void append(EmailMessage emailMessage, int attempts, Instant retryAt) throws IOException {
+        byte[] payload = encode(emailMessage, attempts, retryAt);
+        int recordBytes = HEADER_BYTES + payload.length;
+        // Always leave room for the rollover marker
+        if (recordBytes > segmentBytes - Integer.BYTES) {
+            throw new IOException("Email of " + payload.length + " bytes does not fit in a spool segment");
+        }
+        if (writeOffset + recordBytes > segmentBytes - Integer.BYTES) {
+            roll();
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        writeBuffer.put(writeOffset + HEADER_BYTES, payload);
+        writeBuffer.putInt(writeOffset + Integer.BYTES, (int) crc.getValue());
+        writeBuffer.putInt(writeOffset, payload.length);
+        writeBuffer.force(writeOffset, recordBytes);
+        writeOffset += recordBytes;
+    }
+
+    /**
+     * The oldest email not yet committed, if any. Calling it again without {@link #commit}
+     * returns the same email.
+     */
+    public synchronized Optional<Entry> peek() throws IOException {
+        while (readSegment < writeSegment || readOffset < writeOffset) {
+            ByteBuffer segment = readBuffer();
+            int length = segment.getInt(readOffset);
+            if (length == ROLLOVER || length <= 0 || readOffset + HEADER_BYTES + length > segmentBytes) {
+                if (readSegment == writeSegment) {
+                    return Optional.empty();
+                }
+                finishReadSegment();
+                continue;
+            }
+            byte[] payload = new byte[length];
+            segment.get(readOffset + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != segment.getInt(readOffset + Integer.BYTES)) {
+                logger.error("Corrupt record in spool segment {} at offset {}, skipping the rest of the segment",
+                    readSegment, readOffset);
+                if (readSegment == writeSegment) {
+                    roll();
+                }
+                finishReadSegment();
+                continue;
+            }
+            return Optional.of(decode(payload, readSegment, readOffset + HEADER_BYTES + length));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Mark an email returned by {@link #peek} as sent, so it is never replayed.
+     */
+    public synchronized void commit(Entry entry) throws IOException {
+        if (entry.segment() != readSegment || entry.nextOffset() <= readOffset) {
+            return;
+        }
+        readOffset = entry.nextOffset();
+        writeCheckpoint();
+    }
+
+    public synchronized boolean isEmpty() {
+        return readSegment == writeSegment && readOffset >= writeOffset;
+    }
+
+    /**
+     * Segment files currently on disk.
+     */
+    public synchronized int segmentCount() {
+        return (int) (writeSegment - readSegment + 1);
+    }
+
+    private void roll() throws IOException {
+        if (segmentCount() >= maxSegments) {
+            throw new SpoolFullException(directory, maxSegments);
+        }
+        writeBuffer.putInt(writeOffset, ROLLOVER);
+        writeBuffer.force(writeOffset, Integer.BYTES);
+        if (readSegment == writeSegment) {
+            // The reader still needs this mapping; only the writer moves on
+            readBuffer = writeBuffer;
+        }
+        writeSegment++;
+        writeOffset = 0;
+        writeBuffer = map(writeSegment);
+        logger.info("Rolled over to spool segment {}", writeSegment);
+    }
+
+    private ByteBuffer readBuffer() throws IOException {
+        if (readSegment == writeSegment) {
+            return writeBuffer;
+        }
+        if (readBuffer == null) {
+            readBuffer = map(readSegment);
+        }
+        return readBuffer;
+    }
+
+    private void finishReadSegment() throws IOException {
+        long drained = readSegment;
+        readSegment++;
+        readOffset = 0;
+        readBuffer = null;
+        writeCheckpoint();
+        Files.deleteIfExists(segmentPath(drained));
+        logger.info("Spool segment {} drained and deleted", drained);
+    }
+
+    private void recover() throws IOException {
+        List<Long> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                .sorted()
+                .toList();
+        }
+        ByteBuffer checkpoint = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        if (checkpointChannel.read(checkpoint, 0) == checkpoint.capacity()) {
+            readSegment = checkpoint.getLong(0);
+            readOffset = checkpoint.getInt(Long.BYTES);
+        } else {
+            readSegment = segments.isEmpty() ? 0 : segments.get(0);
+            readOffset = 0;
+        }
+        for (long segment : segments) {
+            if (segment < readSegment) {
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        }
+        writeSegment = segments.isEmpty() ? readSegment : Math.max(readSegment, segments.get(segments.size() - 1));
+        writeBuffer = map(writeSegment);
+        writeOffset = endOfValidRecords(writeBuffer);
+        if (!isEmpty()) {
+            logger.info("Recovered mail spool with {} segment(s) pending in {}", segmentCount(), directory);
+        }
+    }
+
+    // Scans to the first record that is missing, torn or past the rollover marker
+    private int endOfValidRecords(ByteBuffer segment) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segmentBytes) {
+            int length = segment.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentBytes) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            segment.get(offset + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != segment.getInt(offset + Integer.BYTES)) {
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    private void writeCheckpoint() throws IOException {
+        ByteBuffer checkpoint = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        checkpoint.putLong(readSegment).putInt(readOffset).flip();
+        checkpointChannel.write(checkpoint, 0);
+        checkpointChannel.force(false);
+    }
+
+    private MappedByteBuffer map(long segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%020d%s", segment, SEGMENT_SUFFIX));
+    }
+
+    private static byte[] encode(EmailMessage emailMessage, int attempts, Instant retryAt) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, emailMessage.to());
+            writeString(out, emailMessage.subject());
+            writeString(out, emailMessage.body());
+            writeString(out, emailMessage.userId());
+            writeString(out, emailMessage.applicationId());
+            writeString(out, emailMessage.eventType());
+            out.writeLong(emailMessage.eventTime() != null ? emailMessage.eventTime().toEpochMilli() : NO_EVENT_TIME);
+            out.writeInt(attempts);
+            out.writeLong(retryAt != null ? retryAt.toEpochMilli() : NO_EVENT_TIME);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(byte[] payload, long segment, int nextOffset) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        String to = readString(in);
+        String subject = readString(in);
+        String body = readString(in);
+        String userId = readString(in);
+        // Records spooled before the application id was added end here
+        String applicationId = in.hasRemaining() ? readString(in) : null;
+        // ...and here for those spooled before the originating event was recorded
+        String eventType = in.hasRemaining() ? readString(in) : null;
+        long eventTime = in.hasRemaining() ? in.getLong() : NO_EVENT_TIME;
+        // ...and here for those spooled before failed sends were retried with a back off
+        int attempts = in.hasRemaining() ? in.getInt() : 0;
+        long retryAt = in.hasRemaining() ? in.getLong() : NO_EVENT_TIME;
+        EmailMessage message = new EmailMessage(to, subject, EmailBody.of(body), userId, applicationId,
+            eventType, eventTime != NO_EVENT_TIME ? Instant.ofEpochMilli(eventTime) : null);
+        return new Entry(message, attempts, retryAt != NO_EVENT_TIME ? Instant.ofEpochMilli(retryAt) : null,
+            segment, nextOffset);
+    }
+
+    // Length-prefixed UTF-8, since DataOutput.writeUTF is limited to 64 KB
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        checkpointChannel.close();
+        lock.release();
+        lockChannel.close();
+    }
+
+    /**
+     * An email read from the spool, with the position to commit once it was sent.
+     * @param attempts How often sending it has failed so far
+     * @param retryAt When it is due again, or null if it is due straight away
+     */
+    public record Entry(EmailMessage message, int attempts, Instant retryAt, long segment, int nextOffset) {
+
+        public boolean isDue(Instant now) {
+            return retryAt == null || !retryAt.isAfter(now);
+        }
+    }
+
+    /**
+     * Every allowed segment still holds unsent email.
+     */
+    public static class SpoolFullException extends IOException {
+
+        public SpoolFullException(Path directory, int maxSegments) {
+            super("Mail spool " + directory + " is full (" + maxSegments + " segments pending)");
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * {@link NotificationMetrics} on Micrometer, scraped from {@code /actuator/prometheus}.
+ * Stage timers publish histogram buckets, so percentiles can be aggregated across instances.
+ * Timers are cached per tag value to keep the hot path free of meter lookups.
+ * <p>
+ * Delivery SLOs are configured per event type, e.g.
+ * {@code notification.slo.delivery=UserRegistered=30s,APPLICATION_SUBMITTED=5m}; every email
+ * accepted later than its event type's SLO after the event was created counts as a breach.
+ */
+@Component
+public class MicrometerNotificationMetrics implements NotificationMetrics {
+
+    static final String DESERIALIZE = "notification.deserialize";
+    static final String COMPOSE = "notification.compose";
+    static final String SEND = "notification.send";
+    static final String SEND_LOG_WRITE = "notification.send_log.write";
+    static final String SEND_LOG_ENTRIES = "notification.send_log.entries";
+    static final String ACK = "notification.ack";
+    static final String RETRIES = "notification.kafka.retries";
+    static final String DEAD_LETTERS = "notification.kafka.dead_letters";
+    static final String CIRCUIT_TRANSITIONS = "notification.circuit_breaker.transitions";
+    static final String FALLBACKS = "notification.fallbacks";
+    static final String DELIVERY_LATENCY = "notification.delivery.latency";
+    static final String ACK_LATENCY = "notification.ack.latency";
+    static final String SLO_BREACHES = "notification.slo.breaches";
+    static final String RETRY_BUDGET_REQUESTS = "notification.retry_budget.requests";
+    static final String RETRY_BUDGET_AVAILABLE = "notification.retry_budget.available";
+
+    // End-to-end latencies include retry tiers and spooling, so their histograms reach further than the stage timers
+    private static final Duration MIN_END_TO_END = Duration.ofMillis(10);
+    private static final Duration MAX_END_TO_END = Duration.ofHours(1);
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Duration> deliverySlos = new HashMap<>();
+    private final DistributionSummary logBatchSize;
+    private final Counter logWritten;
+    private final Counter logFailed;
+    private final Counter logDropped;
+
+    /**
+     * @param deliverySlos Entries of the form {@code <eventType>=<duration>}, such as {@code UserRegistered=30s}
+     */
+    public MicrometerNotificationMetrics(
+            MeterRegistry registry,
+            @Value("${notification.slo.delivery:}") List<String> deliverySlos) {
+        this.registry = registry;
+        for (String slo : deliverySlos) {
+            String spec = slo.trim();
+            if (spec.isEmpty()) {
+                continue;
+            }
+            int separator = spec.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Delivery SLO must look like <eventType>=<duration>, got: " + spec);
+            }
+            this.deliverySlos.put(spec.substring(0, separator).trim(),
+                DurationStyle.detectAndParse(spec.substring(separator + 1).trim()));
+        }
+        this.logBatchSize = DistributionSummary.builder(SEND_LOG_WRITE + ".batch_size")
+            .description("Entries per send-log bulk write")
+            .register(registry);
+        this.logWritten = registry.counter(SEND_LOG_ENTRIES, "outcome", "written");
+        this.logFailed = registry.counter(SEND_LOG_ENTRIES, "outcome", "failed");
+        this.logDropped = registry.counter(SEND_LOG_ENTRIES, "outcome", "dropped");
+    }
+
+    @Override
+    public void recordDeserialize(String eventType, long nanos) {
+        timer(DESERIALIZE, "event", eventType).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordCompose(String template, long nanos) {
+        timer(COMPOSE, "template", template).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordSend(String provider, boolean success, long nanos) {
+        timer(SEND, "provider", provider, "outcome", outcome(success)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordLogWrite(int written, int failed, long nanos) {
+        timer(SEND_LOG_WRITE, "outcome", outcome(failed == 0)).record(nanos, TimeUnit.NANOSECONDS);
+        logBatchSize.record(written + failed);
+        logWritten.increment(written);
+        logFailed.increment(failed);
+    }
+
+    @Override
+    public void countLogDropped() {
+        logDropped.increment();
+    }
+
+    @Override
+    public void recordAck(String topic, long nanos) {
+        timer(ACK, "topic", topic).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordDelivered(String eventType, String provider, long nanosSinceEvent) {
+        String event = tagValue(eventType);
+        Duration slo = deliverySlos.get(event);
+        long nanos = Math.max(0, nanosSinceEvent); // The producer's clock may run ahead of ours
+        timers.computeIfAbsent(DELIVERY_LATENCY + event + "," + provider,
+                key -> endToEndTimer(DELIVERY_LATENCY, slo).tags("event", event, "provider", provider).register(registry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+        if (slo != null && nanos > slo.toNanos()) {
+            registry.counter(SLO_BREACHES, "event", event, "provider", provider).increment();
+        }
+    }
+
+    @Override
+    public void recordAcked(String topic, String eventType, long nanosSinceRecord) {
+        String event = tagValue(eventType);
+        timers.computeIfAbsent(ACK_LATENCY + topic + "," + event,
+                key -> endToEndTimer(ACK_LATENCY, null).tags("topic", topic, "event", event).register(registry))
+            .record(Math.max(0, nanosSinceRecord), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void countRetry(String topic, String retryTopic) {
+        registry.counter(RETRIES, "topic", topic, "retry_topic", retryTopic).increment();
+    }
+
+    @Override
+    public void countDeadLetter(String topic) {
+        registry.counter(DEAD_LETTERS, "topic", topic).increment();
+    }
+
+    @Override
+    public void countCircuitTransition(String circuitBreaker, String fromState, String toState) {
+        registry.counter(CIRCUIT_TRANSITIONS, "name", circuitBreaker, "from", fromState, "to", toState).increment();
+    }
+
+    @Override
+    public void countFallback(String type) {
+        registry.counter(FALLBACKS, "type", type).increment();
+    }
+
+    @Override
+    public void countRetryBudget(String layer, boolean granted) {
+        registry.counter(RETRY_BUDGET_REQUESTS, "layer", layer, "outcome", granted ? "granted" : "exhausted").increment();
+    }
+
+    @Override
+    public void registerRetryBudget(DoubleSupplier availableRetries) {
+        Gauge.builder(RETRY_BUDGET_AVAILABLE, availableRetries, DoubleSupplier::getAsDouble)
+            .description("Retries the shared retry budget has left")
+            .register(registry);
+    }
+
+    private Timer timer(String name, String... tags) {
+        return timers.computeIfAbsent(name + String.join(",", tags), key -> Timer.builder(name)
+            .tags(tags)
+            .publishPercentileHistogram()
+            .register(registry));
+    }
+
+    // The SLO becomes a histogram bucket of its own, so the share of emails within it is exact
+    private static Timer.Builder endToEndTimer(String name, Duration slo) {
+        Timer.Builder builder = Timer.builder(name)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(MIN_END_TO_END)
+            .maximumExpectedValue(MAX_END_TO_END);
+        return slo != null ? builder.serviceLevelObjectives(slo) : builder;
+    }
+
+    private static String tagValue(String value) {
+        return value != null ? value : "unknown";
+    }
+
+    private static String outcome(boolean success) {
+        return success ? "success" : "failure";
+    }
+}
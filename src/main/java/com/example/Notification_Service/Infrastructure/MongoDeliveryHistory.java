@@ -0,0 +1,109 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Application.ports.DeliveryHistory;
+import com.example.Notification_Service.Domain.DeliveryRecord;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Delivery history over {@code email_send_logs} with keyset pagination: pages are ordered by
+ * timestamp and id, newest first, and the cursor is the position of the last item returned.
+ * Each page is a range scan on one of the indexes from {@link EmailSendLogIndexes}, so it
+ * costs the same on page 1000 as on page 1, unlike skip/limit.
+ */
+@Component
+public class MongoDeliveryHistory implements DeliveryHistory {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "timestamp").and(Sort.by(Sort.Direction.DESC, "id"));
+
+    private final Optional<MongoOperations> mongoOperations;
+
+    public MongoDeliveryHistory(Optional<MongoOperations> mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Page find(Filter filter, String cursor, int limit) {
+        Criteria criteria = matching(filter);
+        if (cursor != null) {
+            Position after = Position.decode(cursor);
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                where("timestamp").lt(after.timestamp()),
+                new Criteria().andOperator(where("timestamp").is(after.timestamp()), where("id").lt(after.id()))));
+        }
+        if (mongoOperations.isEmpty()) {
+            return new Page(List.of(), null);
+        }
+        // One extra row tells whether there is a next page without a count
+        List<EmailSendLog> logs = mongoOperations.get()
+            .find(query(criteria).with(NEWEST_FIRST).limit(limit + 1), EmailSendLog.class);
+        boolean hasMore = logs.size() > limit;
+        List<EmailSendLog> page = hasMore ? logs.subList(0, limit) : logs;
+        String nextCursor = hasMore ? Position.of(page.get(page.size() - 1)).encode() : null;
+        return new Page(page.stream().map(MongoDeliveryHistory::toRecord).toList(), nextCursor);
+    }
+
+    @Override
+    public Stream<DeliveryRecord> stream(Filter filter) {
+        if (mongoOperations.isEmpty()) {
+            return Stream.empty();
+        }
+        Query query = query(matching(filter)).with(NEWEST_FIRST);
+        return mongoOperations.get().stream(query, EmailSendLog.class).map(MongoDeliveryHistory::toRecord);
+    }
+
+    private static Criteria matching(Filter filter) {
+        if (filter.userId() != null) {
+            return where("userId").is(filter.userId());
+        }
+        if (filter.email() != null) {
+            return where("email").is(filter.email());
+        }
+        return where("applicationId").is(filter.applicationId());
+    }
+
+    private static DeliveryRecord toRecord(EmailSendLog log) {
+        return new DeliveryRecord(log.getId(), log.getUserId(), log.getEmail(), log.getApplicationId(),
+            log.isSuccess(), log.getErrorMessage(), log.getTimestamp());
+    }
+
+    /**
+     * Sort position of a log entry, encoded as an opaque URL-safe cursor.
+     */
+    record Position(LocalDateTime timestamp, ObjectId id) {
+
+        static Position of(EmailSendLog log) {
+            return new Position(log.getTimestamp(), new ObjectId(log.getId()));
+        }
+
+        String encode() {
+            String raw = timestamp + "|" + id.toHexString();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Position decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Position(LocalDateTime.parse(raw.substring(0, separator)), new ObjectId(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
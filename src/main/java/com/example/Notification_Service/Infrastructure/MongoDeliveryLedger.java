@@ -0,0 +1,113 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Application.ports.DeliveryLedger;
+import com.example.Notification_Service.Domain.DeliveryKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Delivery ledger backed by the {@code email_deliveries} collection, fronted by a bounded
+ * LRU of recently delivered keys so most redeliveries are answered without a round trip.
+ * Documents expire through a TTL index. Mongo failures never block sending: an unknown
+ * key is treated as not yet delivered.
+ */
+@Component
+public class MongoDeliveryLedger implements DeliveryLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoDeliveryLedger.class);
+
+    private final Optional<MongoOperations> mongoOperations;
+    private final Duration ttl;
+    private final Map<String, Boolean> recentKeys;
+
+    public MongoDeliveryLedger(
+            Optional<MongoOperations> mongoOperations,
+            @Value("${notification.idempotency.ttl:7d}") Duration ttl,
+            @Value("${notification.idempotency.cache-size:100000}") int cacheSize) {
+        this.mongoOperations = mongoOperations;
+        this.ttl = ttl;
+        this.recentKeys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Create the TTL index off the startup path; the _id index already guarantees uniqueness.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        mongoOperations.ifPresent(mongo -> CompletableFuture.runAsync(() -> {
+            try {
+                mongo.indexOps(EmailDelivery.class)
+                    .createIndex(new Index().on("deliveredAt", Sort.Direction.ASC).expire(ttl));
+            } catch (Exception e) {
+                logger.warn("Could not create TTL index on email_deliveries: {}", e.getMessage());
+            }
+        }));
+    }
+
+    @Override
+    public boolean isDelivered(DeliveryKey key) {
+        String id = key.value();
+        if (isRecent(id)) {
+            return true;
+        }
+        if (mongoOperations.isEmpty()) {
+            return false;
+        }
+        try {
+            boolean delivered = mongoOperations.get().exists(query(where("_id").is(id)), EmailDelivery.class);
+            if (delivered) {
+                remember(id);
+            }
+            return delivered;
+        } catch (Exception e) {
+            logger.warn("Delivery ledger lookup failed for {}, assuming not delivered: {}", id, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void markDelivered(DeliveryKey key) {
+        String id = key.value();
+        remember(id);
+        mongoOperations.ifPresent(mongo -> {
+            try {
+                mongo.insert(new EmailDelivery(id, Instant.now()));
+            } catch (DuplicateKeyException e) {
+                // Another instance recorded the same delivery first
+            } catch (Exception e) {
+                logger.warn("Could not record delivery {}: {}", id, e.getMessage());
+            }
+        });
+    }
+
+    private synchronized boolean isRecent(String id) {
+        return recentKeys.get(id) != null;
+    }
+
+    private synchronized void remember(String id) {
+        recentKeys.put(id, Boolean.TRUE);
+    }
+}
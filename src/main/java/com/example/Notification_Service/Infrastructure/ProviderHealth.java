@@ -0,0 +1,53 @@
+package com.example.Notification_Service.Infrastructure;
+
+import java.util.Arrays;
+
+/**
+ * Recent latency and error rate of one provider: p95 over the last {@value #WINDOW}
+ * sends and an exponentially weighted error rate. Turned into a routing weight that
+ * favours fast, healthy providers.
+ */
+class ProviderHealth {
+
+    static final int WINDOW = 128;
+    // Each new outcome moves the error rate by this fraction
+    private static final double ERROR_DECAY = 0.1;
+    // Recomputing the percentile means sorting the window, so only do it every few samples
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] latencies = new long[WINDOW];
+    private int count;
+    private int next;
+    private long p95Nanos;
+    private double errorRate;
+
+    synchronized void record(long latencyNanos, boolean success) {
+        latencies[next] = latencyNanos;
+        next = (next + 1) % WINDOW;
+        count = Math.min(count + 1, WINDOW);
+        errorRate += ERROR_DECAY * ((success ? 0.0 : 1.0) - errorRate);
+        if (count < RECOMPUTE_EVERY || next % RECOMPUTE_EVERY == 0) {
+            long[] window = Arrays.copyOf(latencies, count);
+            Arrays.sort(window);
+            p95Nanos = window[(int) Math.ceil(count * 0.95) - 1];
+        }
+    }
+
+    synchronized long p95Nanos() {
+        return p95Nanos;
+    }
+
+    synchronized double errorRate() {
+        return errorRate;
+    }
+
+    /**
+     * Inversely proportional to p95 latency, scaled down quadratically by the error rate.
+     * A provider without samples yet gets the highest weight so it is measured quickly.
+     */
+    synchronized double weight() {
+        double p95Millis = p95Nanos / 1_000_000.0;
+        double healthy = 1.0 - errorRate;
+        return healthy * healthy / (1.0 + p95Millis);
+    }
+}
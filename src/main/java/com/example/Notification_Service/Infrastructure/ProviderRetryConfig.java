@@ -0,0 +1,34 @@
+package com.example.Notification_Service.Infrastructure;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.backoff.FixedBackOffPolicy;
+import org.springframework.retry.interceptor.RetryInterceptorBuilder;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class ProviderRetryConfig {
+
+    /**
+     * Behind {@code @Retryable} on the providers' blocking sends: failed sends are tried again
+     * after a fixed back off, each retry paid from the shared {@link RetryBudget}.
+     */
+    @Bean
+    public RetryOperationsInterceptor providerRetryInterceptor(
+            RetryBudget retryBudget,
+            @Value("${notification.email.retry.max-attempts:3}") int maxAttempts,
+            @Value("${notification.email.retry.back-off:1s}") Duration backOff) {
+        FixedBackOffPolicy backOffPolicy = new FixedBackOffPolicy();
+        backOffPolicy.setBackOffPeriod(backOff.toMillis());
+        SimpleRetryPolicy retryPolicy = new SimpleRetryPolicy(maxAttempts, Map.of(RuntimeException.class, true));
+        return RetryInterceptorBuilder.stateless()
+            .retryPolicy(new BudgetedRetryPolicy(retryPolicy, retryBudget))
+            .backOffPolicy(backOffPolicy)
+            .build();
+    }
+}
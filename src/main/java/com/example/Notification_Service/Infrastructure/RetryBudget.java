@@ -0,0 +1,94 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One token bucket for every retry layer: {@code @Retryable} on the providers, failover between
+ * provider circuit breakers and the Kafka retry tiers. Each successful send deposits {@code ratio}
+ * of a token and each retry takes a whole one, so retries stay at that share of successful traffic
+ * no matter how the layers multiply. A small per-second reserve still lets a quiet or fully failing
+ * service retry now and then. A refused retry fails fast: to the spool, or to the DLT.
+ */
+@Component
+public class RetryBudget {
+
+    public static final String PROVIDER = "provider";
+    public static final String FAILOVER = "failover";
+    public static final String KAFKA = "kafka";
+
+    // Balances are kept in thousandths of a token, so fractional deposits add up exactly
+    private static final long TOKEN = 1000;
+
+    private final long capacity;
+    private final long deposit;
+    private final double reservePerNano;
+    private final AtomicLong balance;
+    private final AtomicLong reserveAddedAt = new AtomicLong(System.nanoTime());
+    private final NotificationMetrics notificationMetrics;
+
+    /**
+     * @param ratio Retries allowed per successful send, e.g. 0.1 for 10%
+     * @param minPerSecond Retries allowed per second regardless of successes
+     * @param maxRetries Most retries that can be saved up; a fresh instance starts with all of them
+     */
+    public RetryBudget(
+            @Value("${notification.retry-budget.ratio:0.1}") double ratio,
+            @Value("${notification.retry-budget.min-per-second:1}") double minPerSecond,
+            @Value("${notification.retry-budget.max-retries:100}") int maxRetries,
+            NotificationMetrics notificationMetrics) {
+        this.capacity = maxRetries * TOKEN;
+        this.deposit = Math.round(ratio * TOKEN);
+        this.reservePerNano = minPerSecond * TOKEN / 1e9;
+        this.balance = new AtomicLong(capacity);
+        this.notificationMetrics = notificationMetrics;
+        notificationMetrics.registerRetryBudget(this::available);
+    }
+
+    public void recordSuccess() {
+        add(deposit);
+    }
+
+    /**
+     * Takes one retry from the budget.
+     * @param layer The retry layer asking, one of {@link #PROVIDER}, {@link #FAILOVER} or {@link #KAFKA}
+     * @return false if the budget is spent and the caller should give up instead of retrying
+     */
+    public boolean tryAcquire(String layer) {
+        addReserve();
+        boolean granted = true;
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                granted = false;
+                break;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        notificationMetrics.countRetryBudget(layer, granted);
+        return granted;
+    }
+
+    /**
+     * Retries currently available, including fractions of one.
+     */
+    public double available() {
+        return (double) balance.get() / TOKEN;
+    }
+
+    private void addReserve() {
+        long now = System.nanoTime();
+        long last = reserveAddedAt.get();
+        long earned = (long) ((now - last) * reservePerNano);
+        if (earned > 0 && reserveAddedAt.compareAndSet(last, now)) {
+            add(earned);
+        }
+    }
+
+    private void add(long amount) {
+        balance.accumulateAndGet(amount, (current, added) -> Math.min(capacity, current + added));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.Notification_Service.Infrastructure;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The chain of retry topics a failed event walks through before it lands in the DLT,
+ * e.g. {@code application-events -> application-events-retry-10s -> application-events-retry-2m
+ * -> application-events.DLT}. Each hop stamps the time the record becomes due again, so the
+ * tier's consumer can hold it back without blocking the main topic.
+ */
+public class RetryTiers {
+
+    public static final String DUE_AT_HEADER = "notification-retry-due-at";
+    public static final String DLT_SUFFIX = ".DLT";
+
+    private final List<String> suffixes = new ArrayList<>();
+    private final List<Duration> delays = new ArrayList<>();
+
+    /**
+     * @param delays Tier delays in order, such as {@code 10s} or {@code 2m}
+     */
+    public RetryTiers(List<String> delays) {
+        for (String delay : delays) {
+            String spec = delay.trim();
+            this.suffixes.add("-retry-" + spec);
+            this.delays.add(DurationStyle.detectAndParse(spec));
+        }
+    }
+
+    public int size() {
+        return suffixes.size();
+    }
+
+    /**
+     * The retry topic for one tier of a main topic.
+     */
+    public String topic(String baseTopic, int tier) {
+        return baseTopic + suffixes.get(tier);
+    }
+
+    public Duration delay(int tier) {
+        return delays.get(tier);
+    }
+
+    /**
+     * @return The tier a topic belongs to, or -1 for a main topic
+     */
+    public int tierOf(String topic) {
+        for (int tier = 0; tier < suffixes.size(); tier++) {
+            if (topic.endsWith(suffixes.get(tier))) {
+                return tier;
+            }
+        }
+        return -1;
+    }
+
+    public String baseTopic(String topic) {
+        int tier = tierOf(topic);
+        return tier < 0 ? topic : topic.substring(0, topic.length() - suffixes.get(tier).length());
+    }
+
+    /**
+     * Where a record that failed on {@code topic} goes next: the following tier, or the DLT after the last one.
+     */
+    public String nextTopic(String topic) {
+        int next = tierOf(topic) + 1;
+        return next < suffixes.size() ? topic(baseTopic(topic), next) : deadLetterTopic(topic);
+    }
+
+    /**
+     * The DLT of a main topic or any of its tiers.
+     */
+    public String deadLetterTopic(String topic) {
+        return baseTopic(topic) + DLT_SUFFIX;
+    }
+
+    /**
+     * When a record sent to {@code destination} may be retried, or null for the DLT.
+     */
+    public Instant dueAt(String destination, Instant now) {
+        int tier = tierOf(destination);
+        return tier < 0 ? null : now.plus(delays.get(tier));
+    }
+
+    /**
+     * How long a retry record still has to wait; zero when it is due or carries no due time.
+     */
+    public static Duration remaining(Headers headers, Instant now) {
+        Header header = headers.lastHeader(DUE_AT_HEADER);
+        if (header == null || header.value() == null || header.value().length != Long.BYTES) {
+            return Duration.ZERO;
+        }
+        long dueAt = ByteBuffer.wrap(header.value()).getLong();
+        long remaining = dueAt - now.toEpochMilli();
+        return remaining > 0 ? Duration.ofMillis(remaining) : Duration.ZERO;
+    }
+
+    public static byte[] encodeDueAt(Instant dueAt) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(dueAt.toEpochMilli()).array();
+    }
+}
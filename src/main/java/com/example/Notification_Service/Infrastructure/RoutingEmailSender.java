@@ -0,0 +1,347 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Application.ports.EmailSender;
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import com.example.Notification_Service.Domain.EmailMessage;
+import com.example.Notification_Service.Domain.SendResult;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Spreads emails over every configured {@link EmailProvider}, weighted by each provider's
+ * recent p95 latency and error rate, and fails over to the next provider per message.
+ * Every provider has its own circuit breaker (named after the provider); an open breaker
+ * takes the provider out of rotation until it half-opens again. When every breaker is open
+ * the email goes to the durable {@link MailSpool}, if enabled, and counts as handled.
+ * Failing over is a retry, paid from the shared {@link RetryBudget}; once that is spent the
+ * email is spooled as well rather than tried on yet another provider.
+ */
+@Component
+@Primary
+public class RoutingEmailSender implements EmailSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingEmailSender.class);
+
+    // Every provider keeps at least this share of the top weight, so a recovered one is noticed
+    private static final double MIN_RELATIVE_WEIGHT = 0.01;
+
+    private final List<Route> routes;
+    private final Optional<MailSpool> spool;
+    private final RetryBudget retryBudget;
+    private final NotificationMetrics notificationMetrics;
+
+    public RoutingEmailSender(List<EmailProvider> providers, CircuitBreakerRegistry circuitBreakerRegistry,
+                              Optional<MailSpool> spool, RetryBudget retryBudget, NotificationMetrics notificationMetrics) {
+        this.routes = providers.stream()
+            .map(provider -> new Route(provider, circuitBreakerRegistry.circuitBreaker(provider.name()), new ProviderHealth(),
+                retryBudget, notificationMetrics))
+            .toList();
+        this.spool = spool;
+        this.retryBudget = retryBudget;
+        this.notificationMetrics = notificationMetrics;
+        for (Route route : routes) {
+            route.breaker().getEventPublisher().onStateTransition(event -> notificationMetrics.countCircuitTransition(
+                event.getCircuitBreakerName(), event.getStateTransition().getFromState().name(),
+                event.getStateTransition().getToState().name()));
+        }
+        logger.info("Routing emails over providers: {}", providers.stream().map(EmailProvider::name).toList());
+    }
+
+    @Override
+    public void sendEmail(EmailMessage emailMessage) {
+        try {
+            deliver(emailMessage);
+        } catch (NoProviderAvailableException e) {
+            if (!spool(emailMessage)) {
+                throw e;
+            }
+        } catch (RetryBudgetExhaustedException e) {
+            if (!spool(emailMessage)) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Send through the providers only, never spooling.
+     * @throws NoProviderAvailableException If every circuit breaker is open
+     * @throws RetryBudgetExhaustedException If a provider failed and the retry budget allows no failover
+     */
+    void deliver(EmailMessage emailMessage) {
+        RuntimeException lastFailure = null;
+        for (Route route : candidates()) {
+            if (!route.breaker().tryAcquirePermission()) {
+                continue;
+            }
+            if (lastFailure != null) {
+                if (!failOverAllowed(route)) {
+                    throw new RetryBudgetExhaustedException(lastFailure);
+                }
+                notificationMetrics.countFallback("failover");
+            }
+            long start = System.nanoTime();
+            try {
+                route.provider().sendEmail(emailMessage);
+                route.onSuccess(start);
+                delivered(route, emailMessage);
+                return;
+            } catch (RuntimeException e) {
+                route.onError(start, e);
+                lastFailure = e;
+                logger.warn("Provider {} failed for userId: {}, trying next provider: {}",
+                    route.provider().name(), emailMessage.userId(), e.getMessage());
+            }
+        }
+        throw unsent(lastFailure);
+    }
+
+    @Override
+    public CompletableFuture<SendResult> sendEmailAsync(EmailMessage emailMessage) {
+        return sendAsync(emailMessage, candidates(), 0, null);
+    }
+
+    /**
+     * Hands the whole batch to one provider, then fails over the emails it could not send.
+     */
+    @Override
+    public CompletableFuture<List<SendResult>> sendBatch(List<EmailMessage> emailMessages) {
+        if (emailMessages.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        List<Route> candidates = candidates();
+        for (int i = 0; i < candidates.size(); i++) {
+            Route route = candidates.get(i);
+            if (!route.breaker().tryAcquirePermission()) {
+                continue;
+            }
+            int nextRoute = i + 1;
+            long start = System.nanoTime();
+            return route.provider().sendBatch(emailMessages)
+                .exceptionally(error -> emailMessages.stream()
+                    .map(ignored -> SendResult.failure(error, Duration.ofNanos(System.nanoTime() - start)))
+                    .toList())
+                .thenCompose(results -> failOver(emailMessages, results, route, start, candidates, nextRoute));
+        }
+        return EmailSender.super.sendBatch(emailMessages);
+    }
+
+    private CompletableFuture<List<SendResult>> failOver(List<EmailMessage> emailMessages, List<SendResult> results,
+                                                         Route route, long start, List<Route> candidates, int nextRoute) {
+        // The batch counts as one call for the breaker, failing only if nothing went out
+        if (results.stream().anyMatch(SendResult::isSuccess)) {
+            route.breaker().onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } else if (results.isEmpty()) {
+            route.breaker().releasePermission();
+        } else {
+            route.breaker().onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, results.get(0).error());
+        }
+        List<CompletableFuture<SendResult>> retried = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            SendResult result = results.get(i);
+            route.health().record(result.latency().toNanos(), result.isSuccess());
+            notificationMetrics.recordSend(route.provider().name(), result.isSuccess(), result.latency().toNanos());
+            if (result.isSuccess()) {
+                retryBudget.recordSuccess();
+                delivered(route, emailMessages.get(i));
+                retried.add(CompletableFuture.completedFuture(result));
+            } else {
+                retried.add(sendAsync(emailMessages.get(i), candidates, nextRoute, result.error())
+                    .exceptionally(error -> SendResult.failure(error, result.latency())));
+            }
+        }
+        return CompletableFuture.allOf(retried.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> retried.stream().map(CompletableFuture::join).toList());
+    }
+
+    private CompletableFuture<SendResult> sendAsync(EmailMessage emailMessage, List<Route> candidates, int from,
+                                                    Throwable lastFailure) {
+        for (int i = from; i < candidates.size(); i++) {
+            Route route = candidates.get(i);
+            if (!route.breaker().tryAcquirePermission()) {
+                continue;
+            }
+            if (lastFailure != null) {
+                if (!failOverAllowed(route)) {
+                    return spool(emailMessage)
+                        ? CompletableFuture.completedFuture(SendResult.success(null, Duration.ZERO))
+                        : CompletableFuture.failedFuture(unsent(lastFailure));
+                }
+                notificationMetrics.countFallback("failover");
+            }
+            int nextRoute = i + 1;
+            long start = System.nanoTime();
+            CompletableFuture<SendResult> sent;
+            try {
+                sent = route.provider().sendEmailAsync(emailMessage);
+            } catch (RuntimeException e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            return sent.handle((result, error) -> {
+                if (error == null) {
+                    route.onSuccess(start);
+                    delivered(route, emailMessage);
+                    return CompletableFuture.completedFuture(result);
+                }
+                route.onError(start, error);
+                logger.warn("Provider {} failed for userId: {}, trying next provider: {}",
+                    route.provider().name(), emailMessage.userId(), error.getMessage());
+                return sendAsync(emailMessage, candidates, nextRoute, error);
+            }).thenCompose(Function.identity());
+        }
+        if (lastFailure == null && spool(emailMessage)) {
+            return CompletableFuture.completedFuture(SendResult.success(null, Duration.ZERO));
+        }
+        return CompletableFuture.failedFuture(unsent(lastFailure));
+    }
+
+    /**
+     * Pays for failing over to the route from the retry budget, handing back its breaker permission if refused.
+     * Only a granted hand-off to another provider counts as a failover.
+     */
+    private boolean failOverAllowed(Route route) {
+        if (retryBudget.tryAcquire(RetryBudget.FAILOVER)) {
+            return true;
+        }
+        route.breaker().releasePermission();
+        logger.warn("Retry budget exhausted, not failing over to provider {}", route.provider().name());
+        return false;
+    }
+
+    private void delivered(Route route, EmailMessage emailMessage) {
+        if (emailMessage.eventTime() != null) {
+            notificationMetrics.recordDelivered(emailMessage.eventType(), route.provider().name(),
+                Duration.between(emailMessage.eventTime(), Instant.now()).toNanos());
+        }
+    }
+
+    /**
+     * @return true if the email was durably spooled for later delivery
+     */
+    private boolean spool(EmailMessage emailMessage) {
+        if (spool.isEmpty()) {
+            return false;
+        }
+        try {
+            spool.get().append(emailMessage);
+            notificationMetrics.countFallback("spool");
+            logger.info("No email provider available, spooled email for userId: {}", emailMessage.userId());
+            return true;
+        } catch (IOException e) {
+            notificationMetrics.countFallback("spool_failed");
+            logger.error("Could not spool email for userId: {}: {}", emailMessage.userId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Whether any provider's circuit breaker is fully closed, i.e. it is safe to replay spooled email.
+     */
+    boolean hasClosedCircuit() {
+        return routes.stream().anyMatch(route -> route.breaker().getState() == CircuitBreaker.State.CLOSED);
+    }
+
+    private static RuntimeException unsent(Throwable lastFailure) {
+        if (lastFailure == null) {
+            return new NoProviderAvailableException();
+        }
+        return lastFailure instanceof RuntimeException runtime ? runtime : new RuntimeException("Error sending email", lastFailure);
+    }
+
+    /**
+     * Providers in the order to try them: the first drawn at random by weight,
+     * the rest by descending weight as fallbacks.
+     */
+    List<Route> candidates() {
+        if (routes.size() < 2) {
+            return routes;
+        }
+        // Other threads keep updating the weights, so the sort and the draw both work from one read of them
+        double[] weights = new double[routes.size()];
+        double maxWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = routes.get(i).health().weight();
+            maxWeight = Math.max(maxWeight, weights[i]);
+        }
+        double floor = maxWeight * MIN_RELATIVE_WEIGHT;
+        List<Integer> order = new ArrayList<>(weights.length);
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            order.add(i);
+            total += Math.max(weights[i], floor);
+        }
+        order.sort(Comparator.comparingDouble((Integer i) -> weights[i]).reversed());
+
+        // Every provider failing all its sends leaves nothing to draw by
+        if (total > 0) {
+            double draw = ThreadLocalRandom.current().nextDouble(total);
+            for (int i = 0; i < order.size(); i++) {
+                draw -= Math.max(weights[order.get(i)], floor);
+                if (draw < 0) {
+                    order.add(0, order.remove(i));
+                    break;
+                }
+            }
+        }
+        List<Route> ordered = new ArrayList<>(order.size());
+        for (int i : order) {
+            ordered.add(routes.get(i));
+        }
+        return ordered;
+    }
+
+    record Route(EmailProvider provider, CircuitBreaker breaker, ProviderHealth health, RetryBudget retryBudget,
+                 NotificationMetrics metrics) {
+
+        void onSuccess(long start) {
+            long elapsed = System.nanoTime() - start;
+            breaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+            health.record(elapsed, true);
+            retryBudget.recordSuccess();
+            metrics.recordSend(provider.name(), true, elapsed);
+        }
+
+        void onError(long start, Throwable error) {
+            long elapsed = System.nanoTime() - start;
+            breaker.onError(elapsed, TimeUnit.NANOSECONDS, error);
+            health.record(elapsed, false);
+            metrics.recordSend(provider.name(), false, elapsed);
+        }
+    }
+
+    /**
+     * Every provider's circuit breaker is open and the email could not be spooled;
+     * the event goes to the Kafka retry tiers.
+     */
+    public static class NoProviderAvailableException extends RuntimeException {
+
+        public NoProviderAvailableException() {
+            super("No email provider available, all circuit breakers are open");
+        }
+    }
+
+    /**
+     * A provider failed and the retry budget allows no failover; the cause is the provider's failure.
+     */
+    public static class RetryBudgetExhaustedException extends RuntimeException {
+
+        public RetryBudgetExhaustedException(RuntimeException cause) {
+            super("Retry budget exhausted, not failing over: " + cause.getMessage(), cause);
+        }
+    }
+}
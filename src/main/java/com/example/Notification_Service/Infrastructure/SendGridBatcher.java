@@ -0,0 +1,245 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Domain.EmailMessage;
+import com.example.Notification_Service.Domain.EmailTemplate;
+import com.example.Notification_Service.Domain.TemplateEmailBody;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Groups emails rendered from the same template into one {@code mail/send} request.
+ * The template is sent once with a marker per slot, and every recipient becomes a
+ * personalization carrying its own subject and slot values as substitutions.
+ * Emails collected within one window are grouped; other bodies are sent one by one.
+ * The window's dispatcher thread only starts with the first {@link #submit}.
+ * <p>
+ * SendGrid rejects a whole request for one bad personalization (400). Only the recipients the
+ * error points at fail; the rest are sent again once, as one request, or one by one when the
+ * error does not say which personalizations were rejected.
+ */
+public class SendGridBatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SendGridBatcher.class);
+
+    // SendGrid accepts at most 1000 personalizations per request
+    public static final int MAX_PERSONALIZATIONS = 1000;
+
+    // Error fields such as "personalizations.3.to.0.email" name the rejected personalization
+    private static final Pattern REJECTED_PERSONALIZATION = Pattern.compile("personalizations\\.(\\d{1,4})\\.");
+
+    private final SendGridClient client;
+    private final Email from;
+    private final int maxRecipients;
+    private final long windowNanos;
+    private final LinkedBlockingQueue<PendingEmail> queue = new LinkedBlockingQueue<>();
+    private Thread dispatcher;
+    private volatile boolean closed;
+
+    public SendGridBatcher(SendGridClient client, Email from, int maxRecipients, Duration window) {
+        this.client = client;
+        this.from = from;
+        this.maxRecipients = Math.min(maxRecipients, MAX_PERSONALIZATIONS);
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Marker for a template slot inside the shared content.
+     */
+    static String marker(int slot) {
+        return "{{slot" + slot + "}}";
+    }
+
+    /**
+     * Queue an email for the next request.
+     * @return Completes with SendGrid's message id once the request carrying this email was accepted
+     */
+    public CompletableFuture<String> submit(EmailMessage message) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        if (closed) {
+            result.completeExceptionally(new IllegalStateException("SendGrid batcher is closed"));
+            return result;
+        }
+        startDispatcher();
+        queue.add(new PendingEmail(message, result));
+        return result;
+    }
+
+    /**
+     * Group and send the given emails right away, without waiting for a window.
+     * @return One future per email, in order, each completing with that email's message id
+     */
+    public List<CompletableFuture<String>> sendNow(List<EmailMessage> messages) {
+        List<PendingEmail> batch = new ArrayList<>(messages.size());
+        List<CompletableFuture<String>> results = new ArrayList<>(messages.size());
+        for (EmailMessage message : messages) {
+            CompletableFuture<String> result = new CompletableFuture<>();
+            batch.add(new PendingEmail(message, result));
+            results.add(result);
+        }
+        // Respect the per-request personalization limit
+        for (int from = 0; from < batch.size(); from += maxRecipients) {
+            dispatch(batch.subList(from, Math.min(from + maxRecipients, batch.size())));
+        }
+        return results;
+    }
+
+    private synchronized void startDispatcher() {
+        if (dispatcher == null) {
+            dispatcher = new Thread(this::dispatchLoop, "sendgrid-batch");
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+        }
+    }
+
+    private void dispatchLoop() {
+        List<PendingEmail> window = new ArrayList<>();
+        while (!closed) {
+            try {
+                window.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (window.size() < maxRecipients) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingEmail next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    window.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Closing; flush whatever was collected
+            }
+            if (!window.isEmpty()) {
+                dispatch(window);
+                window = new ArrayList<>();
+            }
+        }
+    }
+
+    private void dispatch(List<PendingEmail> window) {
+        Map<EmailTemplate, List<PendingEmail>> byTemplate = new IdentityHashMap<>();
+        for (PendingEmail pending : window) {
+            if (pending.message().content() instanceof TemplateEmailBody body) {
+                byTemplate.computeIfAbsent(body.template(), template -> new ArrayList<>()).add(pending);
+            } else {
+                send(single(pending.message()), List.of(pending));
+            }
+        }
+        byTemplate.forEach((template, group) -> {
+            logger.debug("Sending {} emails in one SendGrid request", group.size());
+            sendGroup(template, group, true);
+        });
+    }
+
+    private Mail single(EmailMessage message) {
+        return new Mail(from, message.subject(), new Email(message.to()), new Content("text/html", message.body()));
+    }
+
+    private Mail personalized(EmailTemplate template, List<PendingEmail> group) {
+        Mail mail = new Mail();
+        mail.setFrom(from);
+        mail.setSubject(group.get(0).message().subject());
+        mail.addContent(new Content("text/html", template.renderMarkers(SendGridBatcher::marker)));
+        for (PendingEmail pending : group) {
+            TemplateEmailBody body = (TemplateEmailBody) pending.message().content();
+            Personalization personalization = new Personalization();
+            personalization.addTo(new Email(pending.message().to()));
+            personalization.setSubject(pending.message().subject());
+            for (int slot = 0; slot < template.slotCount(); slot++) {
+                personalization.addSubstitution(marker(slot), String.valueOf(body.value(slot)));
+            }
+            mail.addPersonalization(personalization);
+        }
+        return mail;
+    }
+
+    private void send(Mail mail, List<PendingEmail> group) {
+        client.send(mail).whenComplete((messageId, failure) -> complete(group, messageId, failure));
+    }
+
+    private void sendGroup(EmailTemplate template, List<PendingEmail> group, boolean resendOnRejection) {
+        client.send(personalized(template, group)).whenComplete((messageId, failure) -> {
+            Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+            if (cause == null || !resendOnRejection || group.size() == 1
+                    || !(cause instanceof SendGridClient.SendGridException rejection) || rejection.getStatusCode() != 400) {
+                complete(group, messageId, cause);
+                return;
+            }
+            Set<Integer> rejected = rejectedPersonalizations(rejection.getBody(), group.size());
+            if (rejected.isEmpty()) {
+                logger.warn("SendGrid rejected a request of {} emails, sending them one by one", group.size());
+                group.forEach(pending -> sendGroup(template, List.of(pending), false));
+                return;
+            }
+            logger.warn("SendGrid rejected {} of {} emails, sending the rest again", rejected.size(), group.size());
+            List<PendingEmail> rest = new ArrayList<>(group.size() - rejected.size());
+            for (int i = 0; i < group.size(); i++) {
+                if (rejected.contains(i)) {
+                    group.get(i).result().completeExceptionally(rejection);
+                } else {
+                    rest.add(group.get(i));
+                }
+            }
+            if (!rest.isEmpty()) {
+                sendGroup(template, rest, false);
+            }
+        });
+    }
+
+    static Set<Integer> rejectedPersonalizations(String errorBody, int personalizations) {
+        Set<Integer> rejected = new HashSet<>();
+        if (errorBody == null) {
+            return rejected;
+        }
+        Matcher matcher = REJECTED_PERSONALIZATION.matcher(errorBody);
+        while (matcher.find()) {
+            int index = Integer.parseInt(matcher.group(1));
+            if (index < personalizations) {
+                rejected.add(index);
+            }
+        }
+        return rejected;
+    }
+
+    private static void complete(List<PendingEmail> group, String messageId, Throwable failure) {
+        for (PendingEmail pending : group) {
+            if (failure == null) {
+                pending.result().complete(messageId);
+            } else {
+                pending.result().completeExceptionally(failure);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        PendingEmail pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new IllegalStateException("SendGrid batcher is closed"));
+        }
+    }
+
+    private record PendingEmail(EmailMessage message, CompletableFuture<String> result) {
+    }
+}
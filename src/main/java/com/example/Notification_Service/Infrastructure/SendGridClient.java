@@ -0,0 +1,121 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.sendgrid.helpers.mail.Mail;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Non-blocking client for SendGrid's {@code mail/send} endpoint on the JDK {@link HttpClient}
+ * (HTTP/2 where the server supports it), so requests in flight don't hold a thread each.
+ * Requests are still built with the SendGrid helper classes.
+ */
+public class SendGridClient {
+
+    private final HttpClient httpClient;
+    private final URI sendUri;
+    private final String authorization;
+    // Caps concurrent requests; requests beyond the cap queue up instead of blocking the caller
+    private final Semaphore inFlight;
+    private final Queue<PendingRequest> waiting = new ConcurrentLinkedQueue<>();
+
+    public SendGridClient(String baseUrl, String apiKey, int maxInFlight) {
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        this.sendUri = URI.create(baseUrl.endsWith("/") ? baseUrl + "v3/mail/send" : baseUrl + "/v3/mail/send");
+        this.authorization = "Bearer " + apiKey;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Post a mail to SendGrid.
+     * @return The {@code X-Message-Id} SendGrid assigned, or exceptionally a {@link SendGridException}
+     */
+    public CompletableFuture<String> send(Mail mail) {
+        String body;
+        try {
+            body = mail.build();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(sendUri)
+            .header("Authorization", authorization)
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofSeconds(30))
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        waiting.add(new PendingRequest(request, result));
+        startWaiting();
+        return result;
+    }
+
+    // Whoever adds a request or frees a permit starts as many waiting requests as there are permits
+    private void startWaiting() {
+        while (!waiting.isEmpty() && inFlight.tryAcquire()) {
+            PendingRequest next = waiting.poll();
+            if (next == null) {
+                inFlight.release();
+            } else {
+                start(next);
+            }
+        }
+    }
+
+    private void start(PendingRequest pending) {
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            response = httpClient.sendAsync(pending.request(), HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((completed, failure) -> {
+            inFlight.release();
+            startWaiting();
+            if (failure != null) {
+                pending.result().completeExceptionally(failure);
+            } else if (completed.statusCode() < 200 || completed.statusCode() >= 300) {
+                pending.result().completeExceptionally(new SendGridException(completed.statusCode(), completed.body()));
+            } else {
+                pending.result().complete(completed.headers().firstValue("X-Message-Id").orElse(null));
+            }
+        });
+    }
+
+    private record PendingRequest(HttpRequest request, CompletableFuture<String> result) {
+    }
+
+    /**
+     * SendGrid answered with a non-2xx status.
+     */
+    public static class SendGridException extends RuntimeException {
+
+        private final int statusCode;
+        private final String body;
+
+        public SendGridException(int statusCode, String body) {
+            super("SendGrid responded " + statusCode + ": " + body);
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+}
@@ -1,14 +1,12 @@
 package com.example.Notification_Service.Infrastructure;
 
-import com.example.Notification_Service.Application.ports.EmailSender;
+import com.example.Notification_Service.Application.jfr.EmailSentEvent;
 import com.example.Notification_Service.Domain.EmailMessage;
-import com.sendgrid.Method;
-import com.sendgrid.Request;
-import com.sendgrid.Response;
-import com.sendgrid.SendGrid;
+import com.example.Notification_Service.Domain.SendResult;
 import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,55 +14,142 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Component
 @ConditionalOnProperty(value = "sendgrid.api.key")
-public class SendGridEmailProvider implements EmailSender {
+public class SendGridEmailProvider implements EmailProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(SendGridEmailProvider.class);
 
-    private final SendGrid sendGrid;
-    private final Optional<EmailSendLogRepository> logRepository;
+    private static final Email FROM = new Email("noreply@yourapp.com");
 
-    public SendGridEmailProvider(@Value("${sendgrid.api.key}") String apiKey, Optional<EmailSendLogRepository> logRepository) {
-        this.sendGrid = new SendGrid(apiKey);
-        this.logRepository = logRepository;
+    private final SendGridClient client;
+    private final Optional<EmailSendLogWriter> sendLogWriter;
+    // Groups same-template emails into one request with personalizations
+    private final SendGridBatcher batcher;
+    // Whether single sends wait for a batch window too, not only sendBatch
+    private final boolean batchEnabled;
+
+    public SendGridEmailProvider(
+            @Value("${sendgrid.api.key}") String apiKey,
+            Optional<EmailSendLogWriter> sendLogWriter,
+            @Value("${notification.email.sendgrid.max-in-flight:100}") int maxInFlight,
+            @Value("${sendgrid.api.base-url:https://api.sendgrid.com}") String baseUrl,
+            @Value("${notification.email.sendgrid.batch.enabled:false}") boolean batchEnabled,
+            @Value("${notification.email.sendgrid.batch.max-recipients:1000}") int batchMaxRecipients,
+            @Value("${notification.email.sendgrid.batch.window:50ms}") Duration batchWindow) {
+        this.client = new SendGridClient(baseUrl, apiKey, maxInFlight);
+        this.sendLogWriter = sendLogWriter;
+        this.batcher = new SendGridBatcher(client, FROM, batchMaxRecipients, batchWindow);
+        this.batchEnabled = batchEnabled;
+    }
+
+    @Override
+    public String name() {
+        return "sendgrid";
     }
 
     @Override
-    @Retryable(value = RuntimeException.class, maxAttempts = 3)
+    @Retryable(interceptor = "providerRetryInterceptor")
     public void sendEmail(EmailMessage emailMessage) {
         logger.info("Attempting to send email to userId: {}", emailMessage.userId());
-        EmailSendLog log = new EmailSendLog(null, emailMessage.userId(), emailMessage.to(), false, null, LocalDateTime.now());
+        EmailSendLog log = EmailSendLog.of(emailMessage, false, null);
+        EmailSentEvent sent = new EmailSentEvent(name(), emailMessage.eventType());
+        sent.begin();
         try {
-            Email from = new Email("noreply@yourapp.com");
-            Email to = new Email(emailMessage.to());
-            Content content = new Content("text/plain", emailMessage.body());
-            Mail mail = new Mail(from, emailMessage.subject(), to, content);
-
-            Request request = new Request();
-            request.setMethod(Method.POST);
-            request.setEndpoint("mail/send");
-            request.setBody(mail.build());
-            Response response = sendGrid.api(request);
-            if (response.getStatusCode() >= 200 && response.getStatusCode() < 300) {
-                log.setSuccess(true);
-                logger.info("Email sent successfully to userId: {}", emailMessage.userId());
-            } else {
-                log.setSuccess(false);
-                log.setErrorMessage("Status: " + response.getStatusCode());
-                logger.error("Failed to send email to userId: {}, status: {}", emailMessage.userId(), response.getStatusCode());
-                throw new RuntimeException("Failed to send email: " + response.getStatusCode());
-            }
+            String messageId = send(emailMessage).join();
+            log.setSuccess(true);
+            sent.success = true;
+            logger.info("Email sent successfully to userId: {}, messageId: {}", emailMessage.userId(), messageId);
         } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
             log.setSuccess(false);
-            log.setErrorMessage(e.getMessage());
-            logger.error("Error sending email to userId: {}, error: {}", emailMessage.userId(), e.getMessage());
-            throw new RuntimeException("Error sending email", e);
+            log.setErrorMessage(cause.getMessage());
+            logger.error("Error sending email to userId: {}, error: {}", emailMessage.userId(), cause.getMessage());
+            throw new RuntimeException("Error sending email", cause);
         } finally {
-            logRepository.ifPresent(repo -> repo.save(log));
+            sent.commit();
+            sendLogWriter.ifPresent(writer -> writer.write(log));
+        }
+    }
+
+    @Override
+    public CompletableFuture<SendResult> sendEmailAsync(EmailMessage emailMessage) {
+        long start = System.nanoTime();
+        EmailSentEvent event = new EmailSentEvent(name(), emailMessage.eventType());
+        event.begin();
+        return send(emailMessage).handle((messageId, error) -> {
+            SendResult result = toResult(messageId, error, start);
+            commit(event, result);
+            saveLog(emailMessage, result);
+            if (!result.isSuccess()) {
+                logger.error("Error sending email to userId: {}, error: {}", emailMessage.userId(), result.errorMessage());
+                throw new CompletionException(result.error());
+            }
+            logger.info("Email sent successfully to userId: {}, messageId: {}", emailMessage.userId(), messageId);
+            return result;
+        });
+    }
+
+    /**
+     * Sends the emails right away, same-template emails sharing one request as personalizations.
+     */
+    @Override
+    public CompletableFuture<List<SendResult>> sendBatch(List<EmailMessage> emailMessages) {
+        long start = System.nanoTime();
+        List<EmailSentEvent> events = new ArrayList<>(emailMessages.size());
+        for (EmailMessage emailMessage : emailMessages) {
+            EmailSentEvent event = new EmailSentEvent(name(), emailMessage.eventType());
+            event.begin();
+            events.add(event);
         }
+        List<CompletableFuture<String>> sent = batcher.sendNow(emailMessages);
+        List<CompletableFuture<SendResult>> results = new ArrayList<>(sent.size());
+        for (int i = 0; i < sent.size(); i++) {
+            EmailMessage emailMessage = emailMessages.get(i);
+            EmailSentEvent event = events.get(i);
+            results.add(sent.get(i).handle((messageId, error) -> {
+                SendResult result = toResult(messageId, error, start);
+                commit(event, result);
+                saveLog(emailMessage, result);
+                return result;
+            }));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    private CompletableFuture<String> send(EmailMessage emailMessage) {
+        if (batchEnabled) {
+            return batcher.submit(emailMessage);
+        }
+        Content content = new Content("text/html", emailMessage.body());
+        return client.send(new Mail(FROM, emailMessage.subject(), new Email(emailMessage.to()), content));
+    }
+
+    private static SendResult toResult(String messageId, Throwable error, long start) {
+        Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        return error == null ? SendResult.success(messageId, latency) : SendResult.failure(error, latency);
+    }
+
+    private static void commit(EmailSentEvent event, SendResult result) {
+        event.success = result.isSuccess();
+        event.commit();
+    }
+
+    private void saveLog(EmailMessage emailMessage, SendResult result) {
+        EmailSendLog log = EmailSendLog.of(emailMessage, result.isSuccess(), result.errorMessage());
+        sendLogWriter.ifPresent(writer -> writer.write(log));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batcher.close();
     }
-}
\ No newline at end of file
+}
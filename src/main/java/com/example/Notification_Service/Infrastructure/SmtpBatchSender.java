@@ -0,0 +1,114 @@
+package com.example.Notification_Service.Infrastructure;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batches outgoing messages: whatever arrives within a short window, up to a maximum
+ * batch size, goes out back to back over one SMTP session from the {@link SmtpTransportPool}.
+ * Each caller gets its own future, completed with that message's result.
+ * <p>
+ * One dispatcher runs per pooled connection, so a burst fills several sessions in parallel
+ * while a trickle still leaves after at most one window.
+ */
+public class SmtpBatchSender implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpBatchSender.class);
+
+    private final SmtpTransportPool pool;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final LinkedBlockingQueue<PendingMessage> queue = new LinkedBlockingQueue<>();
+    private final List<Thread> dispatchers = new ArrayList<>();
+    private volatile boolean closed;
+
+    public SmtpBatchSender(SmtpTransportPool pool, int maxBatchSize, Duration window, int dispatcherCount) {
+        this.pool = pool;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        ThreadFactory threadFactory = new CustomizableThreadFactory("smtp-batch-");
+        for (int i = 0; i < dispatcherCount; i++) {
+            Thread dispatcher = threadFactory.newThread(this::dispatchLoop);
+            dispatcher.setDaemon(true);
+            dispatchers.add(dispatcher);
+            dispatcher.start();
+        }
+    }
+
+    /**
+     * Queue a message for the next batch.
+     * @return Completes when the server accepted the message, or exceptionally with its failure
+     */
+    public CompletableFuture<Void> submit(MimeMessage message) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        if (closed) {
+            result.completeExceptionally(new MessagingException("SMTP batch sender is closed"));
+            return result;
+        }
+        queue.add(new PendingMessage(message, result));
+        return result;
+    }
+
+    private void dispatchLoop() {
+        List<PendingMessage> batch = new ArrayList<>(maxBatchSize);
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingMessage next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Closing; fail whatever was collected below
+            }
+            if (!batch.isEmpty()) {
+                send(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<PendingMessage> batch) {
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        batch.forEach(pending -> messages.add(pending.message()));
+        logger.debug("Sending batch of {} messages over one SMTP session", batch.size());
+        List<MessagingException> failures = pool.sendBatch(messages);
+        for (int i = 0; i < batch.size(); i++) {
+            MessagingException failure = failures.get(i);
+            if (failure == null) {
+                batch.get(i).result().complete(null);
+            } else {
+                batch.get(i).result().completeExceptionally(failure);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        dispatchers.forEach(Thread::interrupt);
+        PendingMessage pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new MessagingException("SMTP batch sender is closed"));
+        }
+    }
+
+    private record PendingMessage(MimeMessage message, CompletableFuture<Void> result) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.Notification_Service.Infrastructure;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+
+@Configuration
+public class SmtpPoolConfig {
+
+    /**
+     * Pooled SMTP connections built from the same session, host and credentials as the
+     * auto-configured {@link JavaMailSenderImpl}. Nothing connects until the first send.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "notification.email.smtp-pool.enabled", havingValue = "true", matchIfMissing = true)
+    public SmtpTransportPool smtpTransportPool(
+            JavaMailSenderImpl mailSender,
+            @Value("${notification.email.smtp-pool.max-connections:5}") int maxConnections,
+            @Value("${notification.email.smtp-pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${notification.email.smtp-pool.max-age:5m}") Duration maxAge,
+            @Value("${notification.email.smtp-pool.validate-after-idle:30s}") Duration validateAfterIdle) {
+        return new SmtpTransportPool(mailSender.getSession(), mailSender.getProtocol(), mailSender.getHost(),
+            mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword(),
+            maxConnections, maxMessagesPerConnection, maxAge, validateAfterIdle);
+    }
+
+    /**
+     * Micro-batching on top of the pool, off by default: it trades up to one window of
+     * latency per email for fewer session round trips under burst traffic.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "notification.email.smtp-batch.enabled", havingValue = "true")
+    public SmtpBatchSender smtpBatchSender(
+            SmtpTransportPool smtpTransportPool,
+            @Value("${notification.email.smtp-batch.max-size:50}") int maxBatchSize,
+            @Value("${notification.email.smtp-batch.window:10ms}") Duration window,
+            @Value("${notification.email.smtp-pool.max-connections:5}") int maxConnections) {
+        return new SmtpBatchSender(smtpTransportPool, maxBatchSize, window, maxConnections);
+    }
+}
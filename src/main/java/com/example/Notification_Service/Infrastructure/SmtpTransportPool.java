@@ -0,0 +1,193 @@
+package com.example.Notification_Service.Infrastructure;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Keeps a bounded number of connected, authenticated SMTP {@link Transport}s and sends many
+ * messages per session, instead of paying the TCP handshake, STARTTLS and AUTH for every
+ * email the way {@code JavaMailSenderImpl.send} does.
+ * <p>
+ * Connections are opened lazily, checked with a NOOP when they have been idle for a while,
+ * and recycled after a number of messages or a maximum age, since SMTP servers limit both.
+ * A connection that fails mid-send is closed rather than returned to the pool.
+ */
+public class SmtpTransportPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final Session session;
+    private final String protocol;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final int maxMessagesPerConnection;
+    private final long maxAgeNanos;
+    private final long validateAfterIdleNanos;
+
+    // Caps open connections: every connection is either idle here or held by one permit
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private volatile boolean closed;
+
+    public SmtpTransportPool(Session session, String protocol, String host, int port, String username, String password,
+                             int maxConnections, int maxMessagesPerConnection, Duration maxAge, Duration validateAfterIdle) {
+        this.session = session;
+        this.protocol = protocol;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.validateAfterIdleNanos = validateAfterIdle.toNanos();
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    /**
+     * Send a message on a pooled connection, blocking while all connections are in use.
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        MessagingException failure = sendBatch(List.of(message)).get(0);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Send several messages back to back over one pooled connection, so the whole batch
+     * pays for a single borrow and, at most, a single connect.
+     * @return One entry per message, in order: null if the server accepted it, otherwise the failure
+     */
+    public List<MessagingException> sendBatch(List<MimeMessage> messages) {
+        List<MessagingException> failures = new ArrayList<>(messages.size());
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            MessagingException interrupted = new MessagingException("Interrupted while waiting for an SMTP connection", e);
+            messages.forEach(message -> failures.add(interrupted));
+            return failures;
+        }
+        PooledTransport pooled = null;
+        try {
+            for (MimeMessage message : messages) {
+                if (pooled != null && pooled.sent >= maxMessagesPerConnection) {
+                    discard(pooled);
+                    pooled = null;
+                }
+                if (pooled == null) {
+                    try {
+                        pooled = borrow();
+                    } catch (MessagingException e) {
+                        // No connection for the rest of the batch either
+                        while (failures.size() < messages.size()) {
+                            failures.add(e);
+                        }
+                        break;
+                    }
+                }
+                try {
+                    if (message.getSentDate() == null) {
+                        message.setSentDate(new Date());
+                    }
+                    message.saveChanges();
+                    pooled.transport.sendMessage(message, message.getAllRecipients());
+                    pooled.sent++;
+                    failures.add(null);
+                } catch (SendFailedException e) {
+                    // The server rejected recipients but the session itself is still usable
+                    failures.add(e);
+                } catch (MessagingException | RuntimeException e) {
+                    failures.add(e instanceof MessagingException me ? me : new MessagingException(e.getMessage(), e));
+                    discard(pooled);
+                    pooled = null;
+                }
+            }
+        } finally {
+            if (pooled != null) {
+                giveBack(pooled);
+            }
+            permits.release();
+        }
+        return failures;
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport pooled;
+        // Most recently used first, so surplus connections age out instead of all going stale together
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isReusable(pooled)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+        return open();
+    }
+
+    private boolean isReusable(PooledTransport pooled) {
+        long now = System.nanoTime();
+        if (pooled.sent >= maxMessagesPerConnection || now - pooled.openedAt >= maxAgeNanos) {
+            return false;
+        }
+        // isConnected() issues a NOOP, so only pay for it after the connection sat idle
+        return now - pooled.lastUsed < validateAfterIdleNanos || pooled.transport.isConnected();
+    }
+
+    private PooledTransport open() throws MessagingException {
+        Transport transport = session.getTransport(protocol);
+        transport.connect(host, port, username, password);
+        logger.debug("Opened SMTP connection to {}:{}", host, port);
+        return new PooledTransport(transport);
+    }
+
+    private void giveBack(PooledTransport pooled) {
+        pooled.lastUsed = System.nanoTime();
+        if (closed) {
+            discard(pooled);
+            return;
+        }
+        idle.offerFirst(pooled);
+    }
+
+    private void discard(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private final long openedAt = System.nanoTime();
+        private long lastUsed = openedAt;
+        private int sent;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
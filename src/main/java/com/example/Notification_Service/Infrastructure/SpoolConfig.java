@@ -0,0 +1,48 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "notification.spool.enabled", havingValue = "true")
+public class SpoolConfig {
+
+    /**
+     * Local spool for emails no provider could take. Events are acked once their email is
+     * spooled, so the directory has no default: it must be on storage that outlives the process,
+     * and belong to this process alone.
+     */
+    @Bean(destroyMethod = "close")
+    public MailSpool mailSpool(
+            @Value("${notification.spool.dir}") Path directory,
+            @Value("${notification.spool.segment-size:16MB}") DataSize segmentSize,
+            @Value("${notification.spool.max-segments:64}") int maxSegments) throws IOException {
+        return new MailSpool(directory, (int) segmentSize.toBytes(), maxSegments);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public SpoolDrainer spoolDrainer(
+            MailSpool mailSpool,
+            RoutingEmailSender routingEmailSender,
+            @Value("${notification.spool.dir}") Path directory,
+            @Value("${notification.spool.segment-size:16MB}") DataSize segmentSize,
+            @Value("${notification.spool.max-segments:64}") int maxSegments,
+            @Value("${notification.spool.drain-rate:20}") int drainRatePerSecond,
+            @Value("${notification.spool.poll-interval:1s}") Duration pollInterval,
+            @Value("${notification.spool.retry.initial-back-off:10s}") Duration initialBackOff,
+            @Value("${notification.spool.retry.max-back-off:10m}") Duration maxBackOff,
+            NotificationMetrics notificationMetrics) throws IOException {
+        // Not a bean of its own, so the spool new emails go to stays unambiguous
+        MailSpool retrySpool = new MailSpool(directory.resolve("retry"), (int) segmentSize.toBytes(), maxSegments);
+        return new SpoolDrainer(mailSpool, retrySpool, routingEmailSender, drainRatePerSecond, pollInterval,
+            initialBackOff, maxBackOff, notificationMetrics);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import jakarta.mail.SendFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays the {@link MailSpool} through the providers once at least one circuit breaker
+ * is closed again, at a fixed maximum rate so a recovering provider is not flooded with
+ * the whole backlog at once. An email is committed only after a provider accepted it.
+ * <p>
+ * An email that fails must not hold up the emails spooled behind it. One a provider rejects
+ * outright (a bad address, an SMTP 5xx or HTTP 4xx rejection) can never be sent; it is dropped,
+ * logged and counted as the {@code spool_dropped} fallback. Any other failure may pass, so the
+ * email is never dropped for it: it moves to a retry spool that this drainer owns, and is tried
+ * again after a back off that doubles with every failure up to {@code maxBackOff}. The retry spool
+ * is drained in order too, so an email due early may wait behind one due later, at most
+ * {@code maxBackOff}. Failures while every circuit breaker is open or the retry budget is spent
+ * are not the email's fault; it stays where it is and is tried again.
+ */
+public class SpoolDrainer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpoolDrainer.class);
+
+    private final MailSpool spool;
+    private final MailSpool retrySpool;
+    private final RoutingEmailSender router;
+    private final long intervalNanos;
+    private final long pollIntervalNanos;
+    private final Duration initialBackOff;
+    private final Duration maxBackOff;
+    private final NotificationMetrics notificationMetrics;
+    private final Thread worker;
+    private volatile boolean running;
+
+    /**
+     * @param retrySpool Where failing emails wait for their next attempt; closed with the drainer
+     */
+    public SpoolDrainer(MailSpool spool, MailSpool retrySpool, RoutingEmailSender router, int ratePerSecond,
+                        Duration pollInterval, Duration initialBackOff, Duration maxBackOff,
+                        NotificationMetrics notificationMetrics) {
+        this.spool = spool;
+        this.retrySpool = retrySpool;
+        this.router = router;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        this.pollIntervalNanos = pollInterval.toNanos();
+        this.initialBackOff = initialBackOff;
+        this.maxBackOff = maxBackOff;
+        this.notificationMetrics = notificationMetrics;
+        this.worker = new Thread(this::drainLoop, "mail-spool-drain");
+        this.worker.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        worker.start();
+    }
+
+    private void drainLoop() {
+        long nextSendAt = System.nanoTime();
+        while (running) {
+            if (!router.hasClosedCircuit() || (spool.isEmpty() && retrySpool.isEmpty())) {
+                LockSupport.parkNanos(pollIntervalNanos);
+                continue;
+            }
+            LockSupport.parkNanos(nextSendAt - System.nanoTime());
+            nextSendAt = Math.max(nextSendAt, System.nanoTime()) + intervalNanos;
+            try {
+                // Emails due for another attempt go first, the rest of the spool is not held up by them
+                Optional<MailSpool.Entry> retry = retrySpool.peek();
+                if (retry.isPresent() && retry.get().isDue(Instant.now())) {
+                    deliver(retrySpool, retry.get());
+                } else {
+                    Optional<MailSpool.Entry> next = spool.peek();
+                    if (next.isEmpty()) {
+                        LockSupport.parkNanos(pollIntervalNanos);
+                        continue;
+                    }
+                    deliver(spool, next.get());
+                }
+                if (spool.isEmpty() && retrySpool.isEmpty()) {
+                    logger.info("Mail spool drained");
+                }
+            } catch (IOException e) {
+                logger.error("Error reading mail spool: {}", e.getMessage());
+                LockSupport.parkNanos(pollIntervalNanos);
+            }
+        }
+    }
+
+    private void deliver(MailSpool from, MailSpool.Entry entry) throws IOException {
+        try {
+            router.deliver(entry.message());
+        } catch (RoutingEmailSender.NoProviderAvailableException e) {
+            // Not this email's fault; it waits for a provider like everything behind it
+            LockSupport.parkNanos(pollIntervalNanos);
+            return;
+        } catch (RuntimeException e) {
+            boolean budgetSpent = e instanceof RoutingEmailSender.RetryBudgetExhaustedException;
+            Throwable failure = budgetSpent ? e.getCause() : e;
+            if (isPermanent(failure)) {
+                drop(from, entry, failure);
+            } else if (budgetSpent) {
+                // The provider failed and there is no budget to fail over; try again once it refills
+                LockSupport.parkNanos(pollIntervalNanos);
+            } else {
+                defer(from, entry, failure);
+            }
+            return;
+        }
+        from.commit(entry);
+    }
+
+    private void defer(MailSpool from, MailSpool.Entry entry, Throwable failure) throws IOException {
+        int attempts = entry.attempts() + 1;
+        Duration backOff = backOff(attempts);
+        // Appended before it is committed, so a crash in between sends it twice rather than never
+        retrySpool.append(entry.message(), attempts, Instant.now().plus(backOff));
+        from.commit(entry);
+        notificationMetrics.countFallback("spool_retry");
+        logger.warn("Could not send spooled email for userId: {} ({} failed attempts), trying again in {}: {}",
+            entry.message().userId(), attempts, backOff, failure.getMessage());
+    }
+
+    Duration backOff(int attempts) {
+        Duration backOff = initialBackOff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backOff.compareTo(maxBackOff) < 0 ? backOff : maxBackOff;
+    }
+
+    private void drop(MailSpool from, MailSpool.Entry entry, Throwable failure) throws IOException {
+        logger.error("Dropping spooled email for userId: {} to {} ({} event), the provider rejected it: {}",
+            entry.message().userId(), entry.message().to(), entry.message().eventType(), failure.getMessage());
+        from.commit(entry);
+        notificationMetrics.countFallback("spool_dropped");
+    }
+
+    /**
+     * Whether a provider rejected the email itself, so sending it again can never succeed.
+     */
+    static boolean isPermanent(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SendFailedException || cause instanceof MailParseException
+                    || cause instanceof MailPreparationException) {
+                return true;
+            }
+            if (cause instanceof SendGridClient.SendGridException rejection) {
+                int status = rejection.getStatusCode();
+                // 401, 403 and 429 are about the account, not the email
+                return status >= 400 && status < 500 && status != 401 && status != 403 && status != 429;
+            }
+            if (cause instanceof MailSendException send) {
+                for (Exception messageFailure : send.getMessageExceptions()) {
+                    if (isPermanent(messageFailure)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws InterruptedException, IOException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        retrySpool.close();
+    }
+}
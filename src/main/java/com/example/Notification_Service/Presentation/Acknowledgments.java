@@ -0,0 +1,71 @@
+package com.example.Notification_Service.Presentation;
+
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acknowledges records for every listener mode, timing the ack itself and recording how long
+ * each record took from its Kafka timestamp to being acknowledged. Listeners pass in the event
+ * type they resolved when dispatching the record, so the payload is not read again here.
+ */
+final class Acknowledgments {
+
+    private Acknowledgments() {
+    }
+
+    /**
+     * @param eventType The type the record was dispatched as, or null if it carries none
+     */
+    static void acknowledge(ConsumerRecord<String, byte[]> record, String eventType, Acknowledgment ack,
+                            NotificationMetrics metrics) {
+        long start = System.nanoTime();
+        ack.acknowledge();
+        metrics.recordAck(record.topic(), System.nanoTime() - start);
+        recordAcked(record, eventType, System.currentTimeMillis(), metrics);
+    }
+
+    /**
+     * One ack for a whole poll; every record of it is acknowledged at the same moment.
+     * @param eventTypes The type of each record, in the order of {@code records}
+     */
+    static void acknowledge(List<ConsumerRecord<String, byte[]>> records, List<String> eventTypes, Acknowledgment ack,
+                            NotificationMetrics metrics) {
+        long start = System.nanoTime();
+        ack.acknowledge();
+        if (records.isEmpty()) {
+            return;
+        }
+        metrics.recordAck(records.get(0).topic(), System.nanoTime() - start);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < records.size(); i++) {
+            recordAcked(records.get(i), eventTypes.get(i), now, metrics);
+        }
+    }
+
+    /**
+     * The type of a record whose handler failed before resolving it. Only used on the failure
+     * path, where the record goes to a retry tier and reading the payload again is rare.
+     */
+    static String eventTypeOf(ConsumerRecord<String, byte[]> record) {
+        try {
+            return EventTypes.of(record.headers(), record.value());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void recordAcked(ConsumerRecord<String, byte[]> record, String eventType, long now,
+                                    NotificationMetrics metrics) {
+        // Records from producers that predate message timestamps carry -1
+        if (record.timestamp() < 0) {
+            return;
+        }
+        metrics.recordAcked(record.topic(), EventTypes.tag(eventType),
+            TimeUnit.MILLISECONDS.toNanos(now - record.timestamp()));
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.Notification_Service.Presentation;
 
+import com.example.Notification_Service.Application.jfr.RecordDeserializedEvent;
+import com.example.Notification_Service.Application.jfr.RecordReceivedEvent;
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
 import com.example.Notification_Service.Application.usecases.SendCongratulationsEmailUseCase;
 import com.example.Notification_Service.Application.usecases.SendResumeViewedEmailUseCase;
 import com.example.Notification_Service.Domain.ApplicationEmailData;
 import com.example.Notification_Service.Domain.ApplicationEventData;
 import com.example.Notification_Service.Domain.ResumeViewedEmailData;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,6 +17,9 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Kafka consumer that listens to the application-events topic and sends
  * congratulation emails to applicants when they submit a job application.
@@ -25,6 +32,7 @@ public class ApplicationEventConsumer {
     private final SendCongratulationsEmailUseCase sendCongratulationsEmailUseCase;
     private final SendResumeViewedEmailUseCase sendResumeViewedEmailUseCase;
     private final ObjectMapper objectMapper;
+    private final NotificationMetrics notificationMetrics;
 
     @Value("${app.name:JobHub}")
     private String appName;
@@ -44,51 +52,107 @@ public class ApplicationEventConsumer {
     public ApplicationEventConsumer(
             SendCongratulationsEmailUseCase sendCongratulationsEmailUseCase,
             SendResumeViewedEmailUseCase sendResumeViewedEmailUseCase,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            NotificationMetrics notificationMetrics) {
         this.sendCongratulationsEmailUseCase = sendCongratulationsEmailUseCase;
         this.sendResumeViewedEmailUseCase = sendResumeViewedEmailUseCase;
         this.objectMapper = objectMapper;
+        this.notificationMetrics = notificationMetrics;
     }
 
     @KafkaListener(
+        id = "applicationEvents",
         topics = "application-events", 
         groupId = "notification-service",
-        containerFactory = "manualAckContainerFactory"
+        containerFactory = "manualAckContainerFactory",
+        autoStartup = "#{'${notification.kafka.listener-mode:record}' == 'record'}"
     )
-    public void onApplicationEvent(String message, Acknowledgment ack) {
+    public void onApplicationEvent(ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+        String eventType = process(record);
+
+        // Acknowledge successful processing
+        Acknowledgments.acknowledge(record, eventType, ack, notificationMetrics);
+    }
+
+    /**
+     * Route a single application event by its type and bind it straight from the payload bytes.
+     * Used by every listener mode; throws when the record should be retried or sent to the DLT.
+     * @return The type of the event, or null if it carries none
+     */
+    public String process(ConsumerRecord<String, byte[]> record) {
+        RecordReceivedEvent received = new RecordReceivedEvent(record.topic(), record.partition(), record.offset(), record.value());
+        received.begin();
         try {
-            ApplicationEventData event = objectMapper.readValue(message, ApplicationEventData.class);
-            logger.info("📥 Received application event: eventType={}, applicationId={}, applicantEmail={}", 
-                event.eventType(), event.applicationId(), event.applicantEmail());
-            
-            if (event.isApplicationSubmitted()) {
+            String eventType = EventTypes.of(record.headers(), record.value());
+            received.eventType = eventType;
+            if (ApplicationEventData.APPLICATION_SUBMITTED.equals(eventType)) {
                 // Process the event and send congratulations email
+                ApplicationEventData event = read(record, eventType);
                 processApplicationSubmittedEvent(event);
-                
-                // Acknowledge successful processing
-                ack.acknowledge();
-                logger.debug("✅ Message acknowledged for applicationId: {}", event.applicationId());
-            } else if (event.isResumeViewed()) {
+                logger.debug("✅ Message processed for applicationId: {}", event.applicationId());
+            } else if (ApplicationEventData.RESUME_VIEWED.equals(eventType)) {
                 // Process the event and send resume viewed notification email
+                ApplicationEventData event = read(record, eventType);
                 processResumeViewedEvent(event);
-                
-                // Acknowledge successful processing
-                ack.acknowledge();
-                logger.debug("✅ Message acknowledged for applicationId: {}", event.applicationId());
+                logger.debug("✅ Message processed for applicationId: {}", event.applicationId());
             } else {
-                logger.warn("⚠️ Unknown event type: {} for applicationId: {}", 
-                    event.eventType(), event.applicationId());
-                // Acknowledge unknown events to avoid reprocessing
-                ack.acknowledge();
+                logger.warn("⚠️ Unknown event type: {} at {}-{}@{}", 
+                    eventType, record.topic(), record.partition(), record.offset());
+                // Unknown events are still acknowledged to avoid reprocessing
             }
-            
+            return eventType;
         } catch (Exception e) {
             logger.error("❌ Error processing Kafka message: {}", e.getMessage(), e);
-            // Don't acknowledge - let the error handler retry or send to DLT
+            // Don't acknowledge - let the error handler send it to the next retry tier
             throw new RuntimeException("Error processing application event", e);
+        } finally {
+            received.commit();
         }
     }
 
+    /**
+     * Route a single application event onto the staged notification pipeline.
+     * @return Completes with the type of the event once the email was sent; fails when the record should be retried
+     */
+    public CompletableFuture<String> submit(ConsumerRecord<String, byte[]> record) {
+        RecordReceivedEvent received = new RecordReceivedEvent(record.topic(), record.partition(), record.offset(), record.value());
+        received.begin();
+        try {
+            String eventType = EventTypes.of(record.headers(), record.value());
+            received.eventType = eventType;
+            if (ApplicationEventData.APPLICATION_SUBMITTED.equals(eventType)) {
+                ApplicationEventData event = read(record, eventType);
+                return sendCongratulationsEmailUseCase.submitCongratulationsEmail(toApplicationEmailData(event), event.userId(), event.createdAt())
+                    .thenApply(sent -> eventType);
+            } else if (ApplicationEventData.RESUME_VIEWED.equals(eventType)) {
+                ApplicationEventData event = read(record, eventType);
+                return sendResumeViewedEmailUseCase.submitResumeViewedEmail(toResumeViewedEmailData(event), event.userId(), event.createdAt())
+                    .thenApply(sent -> eventType);
+            }
+            logger.warn("⚠️ Unknown event type: {} at {}-{}@{}", 
+                eventType, record.topic(), record.partition(), record.offset());
+            return CompletableFuture.completedFuture(eventType);
+        } catch (Exception e) {
+            logger.error("❌ Error processing Kafka message: {}", e.getMessage(), e);
+            return CompletableFuture.failedFuture(new RuntimeException("Error processing application event", e));
+        } finally {
+            received.commit();
+        }
+    }
+
+    private ApplicationEventData read(ConsumerRecord<String, byte[]> record, String eventType) throws IOException {
+        RecordDeserializedEvent deserialized = new RecordDeserializedEvent(record.topic(), record.partition(), record.offset(),
+            eventType, record.value());
+        deserialized.begin();
+        long start = System.nanoTime();
+        ApplicationEventData event = objectMapper.readValue(record.value(), ApplicationEventData.class);
+        notificationMetrics.recordDeserialize(eventType, System.nanoTime() - start);
+        deserialized.commit();
+        logger.info("📥 Received application event: eventType={}, applicationId={}, applicantEmail={}", 
+            event.eventType(), event.applicationId(), event.applicantEmail());
+        return event;
+    }
+
     /**
      * Process the APPLICATION_SUBMITTED event and send congratulations email
      */
@@ -96,8 +160,29 @@ public class ApplicationEventConsumer {
         logger.info("📧 Processing application submitted event for: {} - {} at {}", 
             event.applicantName(), event.jobTitle(), event.companyName());
         
-        // Prepare email data
-        ApplicationEmailData emailData = new ApplicationEmailData(
+        // Send congratulations email
+        sendCongratulationsEmailUseCase.sendCongratulationsEmail(toApplicationEmailData(event), event.userId(), event.createdAt());
+        
+        logger.info("✅ Congratulations email processing completed for applicationId: {}", 
+            event.applicationId());
+    }
+
+    /**
+     * Process the RESUME_VIEWED event and send resume viewed notification email
+     */
+    private void processResumeViewedEvent(ApplicationEventData event) {
+        logger.info("📧 Processing resume viewed event for: {} - {} at {}", 
+            event.applicantName(), event.jobTitle(), event.companyName());
+        
+        // Send resume viewed notification email
+        sendResumeViewedEmailUseCase.sendResumeViewedEmail(toResumeViewedEmailData(event), event.userId(), event.createdAt());
+        
+        logger.info("✅ Resume viewed notification email processing completed for applicationId: {}", 
+            event.applicationId());
+    }
+
+    private ApplicationEmailData toApplicationEmailData(ApplicationEventData event) {
+        return new ApplicationEmailData(
             event.applicantName(),
             event.applicantEmail(),
             event.jobTitle(),
@@ -110,23 +195,10 @@ public class ApplicationEventConsumer {
             unsubscribeUrl,
             privacyUrl
         );
-        
-        // Send congratulations email
-        sendCongratulationsEmailUseCase.sendCongratulationsEmail(emailData, event.userId());
-        
-        logger.info("✅ Congratulations email processing completed for applicationId: {}", 
-            event.applicationId());
     }
 
-    /**
-     * Process the RESUME_VIEWED event and send resume viewed notification email
-     */
-    private void processResumeViewedEvent(ApplicationEventData event) {
-        logger.info("📧 Processing resume viewed event for: {} - {} at {}", 
-            event.applicantName(), event.jobTitle(), event.companyName());
-        
-        // Prepare email data
-        ResumeViewedEmailData emailData = new ResumeViewedEmailData(
+    private ResumeViewedEmailData toResumeViewedEmailData(ApplicationEventData event) {
+        return new ResumeViewedEmailData(
             event.applicantName(),
             event.applicantEmail(),
             event.jobTitle(),
@@ -142,11 +214,5 @@ public class ApplicationEventConsumer {
             unsubscribeUrl,
             privacyUrl
         );
-        
-        // Send resume viewed notification email
-        sendResumeViewedEmailUseCase.sendResumeViewedEmail(emailData, event.userId());
-        
-        logger.info("✅ Resume viewed notification email processing completed for applicationId: {}", 
-            event.applicationId());
     }
 }
@@ -0,0 +1,111 @@
+package com.example.Notification_Service.Presentation;
+
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Batch-mode Kafka listeners, started only when notification.kafka.listener-mode=batch.
+ * Each poll is processed concurrently, failed records are sent to their retry tier one by one
+ * once every record is done, and the offsets of the whole batch are committed once.
+ * A failed publish to the retry tier is retried, see {@link RetryTierRecovery}; if the service
+ * shuts down first, only the records before that one are committed and the rest are redelivered.
+ */
+@Component
+public class BatchEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchEventListener.class);
+
+    private final KafkaEventListener userEventListener;
+    private final ApplicationEventConsumer applicationEventConsumer;
+    private final RetryTierRecovery retryTierRecovery;
+    private final AsyncTaskExecutor batchProcessingExecutor;
+    private final NotificationMetrics notificationMetrics;
+
+    public BatchEventListener(
+            KafkaEventListener userEventListener,
+            ApplicationEventConsumer applicationEventConsumer,
+            DeadLetterPublishingRecoverer deadLetterPublishingRecoverer,
+            @Qualifier("batchProcessingExecutor") AsyncTaskExecutor batchProcessingExecutor,
+            @Value("${notification.kafka.recover.back-off:1s}") Duration recoverBackOff,
+            NotificationMetrics notificationMetrics) {
+        this.userEventListener = userEventListener;
+        this.applicationEventConsumer = applicationEventConsumer;
+        this.retryTierRecovery = new RetryTierRecovery(deadLetterPublishingRecoverer, recoverBackOff);
+        this.batchProcessingExecutor = batchProcessingExecutor;
+        this.notificationMetrics = notificationMetrics;
+    }
+
+    @KafkaListener(id = "userEventsBatch", topics = "user-events", groupId = "notification-service",
+                   containerFactory = "batchContainerFactory",
+                   autoStartup = "#{'${notification.kafka.listener-mode:record}' == 'batch'}")
+    public void onUserEvents(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        List<String> eventTypes = processBatch(records, userEventListener::process);
+        Acknowledgments.acknowledge(records, eventTypes, ack, notificationMetrics);
+    }
+
+    @KafkaListener(id = "applicationEventsBatch", topics = "application-events", groupId = "notification-service",
+                   containerFactory = "batchContainerFactory",
+                   autoStartup = "#{'${notification.kafka.listener-mode:record}' == 'batch'}")
+    public void onApplicationEvents(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        List<String> eventTypes = processBatch(records, applicationEventConsumer::process);
+        Acknowledgments.acknowledge(records, eventTypes, ack, notificationMetrics);
+    }
+
+    /**
+     * @return The event type of each record, in the order of {@code records}
+     */
+    private List<String> processBatch(List<ConsumerRecord<String, byte[]>> records,
+                                      Function<ConsumerRecord<String, byte[]>, String> handler) {
+        logger.debug("Processing batch of {} records", records.size());
+        List<CompletableFuture<String>> results = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            results.add(CompletableFuture.supplyAsync(() -> handler.apply(record), batchProcessingExecutor));
+        }
+
+        // Every record is done before any is published, so nothing is still running if a publish gives up
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).exceptionally(failure -> null).join();
+
+        List<String> eventTypes = new ArrayList<>(records.size());
+        int failed = 0;
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                eventTypes.add(results.get(i).join());
+            } catch (CompletionException e) {
+                failed++;
+                ConsumerRecord<String, byte[]> record = records.get(i);
+                if (!retryTierRecovery.recover(record, e.getCause())) {
+                    // Commits the records before this one; it and the rest are redelivered after the restart
+                    throw new BatchListenerFailedException("Record left unpublished at shutdown", e.getCause(), i);
+                }
+                eventTypes.add(Acknowledgments.eventTypeOf(record));
+            }
+        }
+        if (failed > 0) {
+            logger.warn("Batch of {} records completed with {} failures", records.size(), failed);
+        }
+        return eventTypes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryTierRecovery.close();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.Notification_Service.Presentation;
+
+import com.example.Notification_Service.Application.ports.DeliveryHistory;
+import com.example.Notification_Service.Domain.DeliveryRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Delivery history for support: every send attempt for a user, an email address or a
+ * job application, newest first. Pages are cursor based; {@code /export} streams all
+ * matching attempts as newline-delimited JSON without holding them in memory.
+ * <p>
+ * Internal only: responses carry recipient addresses and provider error text, and the API has
+ * no authentication of its own. It is off unless {@code notification.delivery-history.enabled}
+ * is set, and must then only be reachable from the internal network or behind an admin gateway.
+ */
+@RestController
+@ConditionalOnProperty(name = "notification.delivery-history.enabled", havingValue = "true")
+@RequestMapping("/api/deliveries")
+public class DeliveryHistoryController {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    // Flush periodically so a long export reaches the client while it is still being read
+    private static final int FLUSH_EVERY = 1000;
+
+    private final DeliveryHistory deliveryHistory;
+    private final ObjectWriter lineWriter;
+
+    public DeliveryHistoryController(DeliveryHistory deliveryHistory, ObjectMapper objectMapper) {
+        this.deliveryHistory = deliveryHistory;
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @GetMapping
+    public DeliveryHistory.Page find(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String applicationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        try {
+            return deliveryHistory.find(filter(userId, email, applicationId), cursor, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String applicationId) {
+        DeliveryHistory.Filter filter = filter(userId, email, applicationId);
+        StreamingResponseBody body = out -> {
+            try (Stream<DeliveryRecord> records = deliveryHistory.stream(filter)) {
+                writeLines(records.iterator(), new BufferedOutputStream(out));
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private void writeLines(Iterator<DeliveryRecord> records, OutputStream out) throws IOException {
+        int written = 0;
+        while (records.hasNext()) {
+            out.write(lineWriter.writeValueAsBytes(records.next()));
+            out.write('\n');
+            if (++written % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    private static DeliveryHistory.Filter filter(String userId, String email, String applicationId) {
+        int given = (userId != null ? 1 : 0) + (email != null ? 1 : 0) + (applicationId != null ? 1 : 0);
+        if (given != 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Exactly one of userId, email or applicationId is required");
+        }
+        return new DeliveryHistory.Filter(userId, email, applicationId);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.Notification_Service.Presentation;
+
+import com.example.Notification_Service.Domain.ApplicationEventData;
+import com.example.Notification_Service.Domain.UserRegisteredEvent;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Finds the type of an event before it is bound: the {@code eventType} Kafka header when the
+ * producer set one, otherwise the top-level {@code eventType} field of the JSON payload.
+ * Events we don't handle can then be skipped without deserializing the rest of the payload.
+ */
+final class EventTypes {
+
+    static final String HEADER = "eventType";
+    static final String UNKNOWN = "unknown";
+
+    private static final Set<String> HANDLED = Set.of(
+        UserRegisteredEvent.USER_REGISTERED, ApplicationEventData.APPLICATION_SUBMITTED, ApplicationEventData.RESUME_VIEWED);
+
+    private EventTypes() {
+    }
+
+    /**
+     * @return The event type, or null if neither the header nor the payload carries one
+     * @throws IOException If the type has to be read from a payload that is not a JSON object
+     */
+    static String of(Headers headers, byte[] payload) throws IOException {
+        Header header = headers.lastHeader(HEADER);
+        if (header != null && header.value() != null) {
+            return new String(header.value(), StandardCharsets.UTF_8);
+        }
+        if (payload == null) {
+            throw new IOException("Event has no payload");
+        }
+        return JsonFields.scalar(payload, "eventType");
+    }
+
+    /**
+     * The event type as a metric tag. Producers can send any type, so everything this service
+     * does not handle is tagged {@value #UNKNOWN} to keep the number of series bounded.
+     */
+    static String tag(String eventType) {
+        return eventType != null && HANDLED.contains(eventType) ? eventType : UNKNOWN;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.Notification_Service.Presentation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Reads a single top-level field straight from a UTF-8 JSON payload with a streaming
+ * parser, stopping as soon as the field is found and skipping nested values unparsed.
+ */
+final class JsonFields {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private JsonFields() {
+    }
+
+    /**
+     * @return The field's scalar value as text, or null if the field is missing or not a scalar
+     * @throws IOException If the payload is not a JSON object
+     */
+    static String scalar(byte[] payload, String field) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals(name)) {
+                    return value.isScalarValue() ? parser.getValueAsString() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+}
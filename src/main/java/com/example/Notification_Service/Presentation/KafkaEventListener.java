@@ -1,9 +1,13 @@
 package com.example.Notification_Service.Presentation;
 
+import com.example.Notification_Service.Application.jfr.RecordDeserializedEvent;
+import com.example.Notification_Service.Application.jfr.RecordReceivedEvent;
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
 import com.example.Notification_Service.Application.usecases.SendVerificationEmailUseCase;
 import com.example.Notification_Service.Domain.UserRegisteredEvent;
 import com.example.Notification_Service.Domain.VerificationEmailData;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,6 +15,9 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
 @Component
 public class KafkaEventListener {
 
@@ -18,6 +25,7 @@ public class KafkaEventListener {
 
     private final SendVerificationEmailUseCase sendVerificationEmailUseCase;
     private final ObjectMapper objectMapper;
+    private final NotificationMetrics notificationMetrics;
 
     @Value("${app.name:JobHub}")
     private String appName;
@@ -34,44 +42,99 @@ public class KafkaEventListener {
     @Value("${app.token-expiry-hours:24}")
     private int tokenExpiryHours;
 
-    public KafkaEventListener(SendVerificationEmailUseCase sendVerificationEmailUseCase, ObjectMapper objectMapper) {
+    public KafkaEventListener(SendVerificationEmailUseCase sendVerificationEmailUseCase, ObjectMapper objectMapper,
+                              NotificationMetrics notificationMetrics) {
         this.sendVerificationEmailUseCase = sendVerificationEmailUseCase;
         this.objectMapper = objectMapper;
+        this.notificationMetrics = notificationMetrics;
+    }
+
+    @KafkaListener(id = "userEvents", topics = "user-events", groupId = "notification-service",
+                   containerFactory = "manualAckContainerFactory",
+                   autoStartup = "#{'${notification.kafka.listener-mode:record}' == 'record'}")
+    public void onUserRegistered(ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+        String eventType = process(record);
+
+        // Acknowledge successful processing
+        Acknowledgments.acknowledge(record, eventType, ack, notificationMetrics);
     }
 
-    @KafkaListener(topics = "user-events", groupId = "notification-service",
-                   containerFactory = "manualAckContainerFactory")
-    public void onUserRegistered(String message, Acknowledgment ack) {
+    /**
+     * Route a single user event by its type and bind it straight from the payload bytes.
+     * Used by every listener mode; throws when the record should be retried or sent to the DLT.
+     * @return The type of the event, or null if it carries none
+     */
+    public String process(ConsumerRecord<String, byte[]> record) {
+        RecordReceivedEvent received = new RecordReceivedEvent(record.topic(), record.partition(), record.offset(), record.value());
+        received.begin();
         try {
-            UserRegisteredEvent event = objectMapper.readValue(message, UserRegisteredEvent.class);
-            logger.info("Received UserRegistered event for userId: {}", event.userId());
-            if ("UserRegistered".equals(event.eventType())) {
-                VerificationEmailData emailData = new VerificationEmailData(
-                    event.firstName(),
-                    event.email(),
-                    event.verificationToken(),
-                    appUrl,
-                    appName,
-                    appLogoUrl,
-                    supportUrl,
-                    tokenExpiryHours
-                );
-
-                sendVerificationEmailUseCase.sendVerificationEmail(emailData, event.userId());
+            String eventType = EventTypes.of(record.headers(), record.value());
+            received.eventType = eventType;
+            if (UserRegisteredEvent.USER_REGISTERED.equals(eventType)) {
+                UserRegisteredEvent event = read(record);
+                sendVerificationEmailUseCase.sendVerificationEmail(toVerificationEmailData(event), event.userId(), event.timestamp());
                 logger.info("Verification email sent for userId: {}", event.userId());
-
-                // Acknowledge successful processing
-                ack.acknowledge();
-                logger.debug("Message acknowledged for userId: {}", event.userId());
             } else {
-                logger.warn("Unknown event type: {}", event.eventType());
-                // Acknowledge even for unknown events to avoid reprocessing
-                ack.acknowledge();
+                logger.warn("Unknown event type: {}", eventType);
+                // Unknown events are still acknowledged to avoid reprocessing
             }
+            return eventType;
         } catch (Exception e) {
             logger.error("Error processing Kafka message: {}", e.getMessage(), e);
-            // Don't acknowledge - let the error handler retry or send to DLT
+            // Don't acknowledge - let the error handler send it to the next retry tier
             throw new RuntimeException("Error processing Kafka message", e);
+        } finally {
+            received.commit();
+        }
+    }
+
+    /**
+     * Route a single user event onto the staged notification pipeline.
+     * @return Completes with the type of the event once the email was sent; fails when the record should be retried
+     */
+    public CompletableFuture<String> submit(ConsumerRecord<String, byte[]> record) {
+        RecordReceivedEvent received = new RecordReceivedEvent(record.topic(), record.partition(), record.offset(), record.value());
+        received.begin();
+        try {
+            String eventType = EventTypes.of(record.headers(), record.value());
+            received.eventType = eventType;
+            if (UserRegisteredEvent.USER_REGISTERED.equals(eventType)) {
+                UserRegisteredEvent event = read(record);
+                return sendVerificationEmailUseCase.submitVerificationEmail(toVerificationEmailData(event), event.userId(), event.timestamp())
+                    .thenApply(sent -> eventType);
+            }
+            logger.warn("Unknown event type: {}", eventType);
+            return CompletableFuture.completedFuture(eventType);
+        } catch (Exception e) {
+            logger.error("Error processing Kafka message: {}", e.getMessage(), e);
+            return CompletableFuture.failedFuture(new RuntimeException("Error processing Kafka message", e));
+        } finally {
+            received.commit();
         }
     }
-}
\ No newline at end of file
+
+    private UserRegisteredEvent read(ConsumerRecord<String, byte[]> record) throws IOException {
+        RecordDeserializedEvent deserialized = new RecordDeserializedEvent(record.topic(), record.partition(), record.offset(),
+            UserRegisteredEvent.USER_REGISTERED, record.value());
+        deserialized.begin();
+        long start = System.nanoTime();
+        UserRegisteredEvent event = objectMapper.readValue(record.value(), UserRegisteredEvent.class);
+        notificationMetrics.recordDeserialize(UserRegisteredEvent.USER_REGISTERED, System.nanoTime() - start);
+        deserialized.commit();
+        logger.info("Received UserRegistered event for userId: {}", event.userId());
+        return event;
+    }
+
+    private VerificationEmailData toVerificationEmailData(UserRegisteredEvent event) {
+        return new VerificationEmailData(
+            event.firstName(),
+            event.email(),
+            event.verificationToken(),
+            appUrl,
+            appName,
+            appLogoUrl,
+            supportUrl,
+            tokenExpiryHours
+        );
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.Notification_Service.Presentation;
+
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+/**
+ * Key-ordered parallel listeners, started only when notification.kafka.listener-mode=key-ordered.
+ * Records from one partition are fanned out to worker lanes by userId/applicationId, so events
+ * for the same user or application keep their order while everything else runs in parallel.
+ * Acks are asynchronous: the container only commits up to the highest contiguous completed offset.
+ * A failed record is acked only once it is on a retry tier, see {@link RetryTierRecovery}.
+ */
+@Component
+public class KeyOrderedEventListener {
+
+    private final KafkaEventListener userEventListener;
+    private final ApplicationEventConsumer applicationEventConsumer;
+    private final RetryTierRecovery retryTierRecovery;
+    private final KeyOrderedExecutor executor;
+    private final NotificationMetrics notificationMetrics;
+
+    public KeyOrderedEventListener(
+            KafkaEventListener userEventListener,
+            ApplicationEventConsumer applicationEventConsumer,
+            DeadLetterPublishingRecoverer deadLetterPublishingRecoverer,
+            @Value("${notification.kafka.key-ordered.lanes:16}") int lanes,
+            @Qualifier("keyOrderedWorkerThreadFactory") ThreadFactory workerThreadFactory,
+            @Value("${notification.kafka.recover.back-off:1s}") Duration recoverBackOff,
+            NotificationMetrics notificationMetrics) {
+        this.userEventListener = userEventListener;
+        this.applicationEventConsumer = applicationEventConsumer;
+        this.retryTierRecovery = new RetryTierRecovery(deadLetterPublishingRecoverer, recoverBackOff);
+        this.executor = new KeyOrderedExecutor(lanes, workerThreadFactory);
+        this.notificationMetrics = notificationMetrics;
+    }
+
+    @KafkaListener(id = "userEventsKeyOrdered", topics = "user-events", groupId = "notification-service",
+                   containerFactory = "asyncAckContainerFactory",
+                   autoStartup = "#{'${notification.kafka.listener-mode:record}' == 'key-ordered'}")
+    public void onUserEvent(ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+        dispatch(record, ack, OrderingKeys.of(record.key(), record.value(), "userId"), userEventListener::process);
+    }
+
+    @KafkaListener(id = "applicationEventsKeyOrdered", topics = "application-events", groupId = "notification-service",
+                   containerFactory = "asyncAckContainerFactory",
+                   autoStartup = "#{'${notification.kafka.listener-mode:record}' == 'key-ordered'}")
+    public void onApplicationEvent(ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+        dispatch(record, ack, OrderingKeys.of(record.key(), record.value(), "applicationId"),
+            applicationEventConsumer::process);
+    }
+
+    private void dispatch(ConsumerRecord<String, byte[]> record, Acknowledgment ack, String key,
+                          Function<ConsumerRecord<String, byte[]>, String> handler) {
+        executor.execute(key, () -> {
+            String eventType;
+            try {
+                eventType = handler.apply(record);
+            } catch (Exception e) {
+                if (!retryTierRecovery.recover(record, e)) {
+                    // Never committed, so the record is redelivered after the restart
+                    return;
+                }
+                eventType = Acknowledgments.eventTypeOf(record);
+            }
+            Acknowledgments.acknowledge(record, eventType, ack, notificationMetrics);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryTierRecovery.close();
+        executor.close();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.Notification_Service.Presentation;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks on a fixed set of single-threaded lanes, choosing the lane from a key.
+ * Tasks with the same key always run on the same lane and therefore in submission
+ * order, while tasks for different keys run in parallel.
+ */
+public class KeyOrderedExecutor implements AutoCloseable {
+
+    private final ExecutorService[] lanes;
+    private final AtomicInteger unkeyed = new AtomicInteger();
+
+    public KeyOrderedExecutor(int laneCount, ThreadFactory threadFactory) {
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(threadFactory);
+        }
+    }
+
+    /**
+     * Submit a task for the given key. Tasks without a key are spread round-robin.
+     */
+    public void execute(String key, Runnable task) {
+        lanes[laneFor(key)].execute(task);
+    }
+
+    int laneFor(String key) {
+        if (key == null) {
+            return Math.floorMod(unkeyed.getAndIncrement(), lanes.length);
+        }
+        return Math.floorMod(key.hashCode(), lanes.length);
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            for (ExecutorService lane : lanes) {
+                lane.awaitTermination(30, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.Notification_Service.Presentation;
+
+import java.io.IOException;
+
+/**
+ * Finds the ordering key of an event: the Kafka record key when the producer set one,
+ * otherwise a top-level field of the JSON payload, read with a streaming parser that
+ * stops as soon as the field is found.
+ */
+final class OrderingKeys {
+
+    private OrderingKeys() {
+    }
+
+    static String of(String recordKey, byte[] payload, String field) {
+        if (recordKey != null) {
+            return recordKey;
+        }
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return JsonFields.scalar(payload, field);
+        } catch (IOException e) {
+            // Malformed payloads still get processed (and fail) on some lane
+            return null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.Notification_Service.Presentation;
+
+import com.example.Notification_Service.Application.pipeline.BackpressureListener;
+import com.example.Notification_Service.Application.pipeline.NotificationPipeline;
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Staged pipeline listeners, started only when notification.kafka.listener-mode=pipeline.
+ * The consumer thread only deserializes and hands each record to the {@link NotificationPipeline};
+ * composing and sending happen on the pipeline's own stages. When the send stage saturates the
+ * containers are paused, so records stay in Kafka instead of piling up in memory.
+ * A failed record is acked only once it is on a retry tier, see {@link RetryTierRecovery}.
+ */
+@Component
+public class PipelineEventListener implements BackpressureListener {
+
+    private static final List<String> LISTENER_IDS = List.of("userEventsPipeline", "applicationEventsPipeline");
+
+    private final KafkaEventListener userEventListener;
+    private final ApplicationEventConsumer applicationEventConsumer;
+    private final RetryTierRecovery retryTierRecovery;
+    private final KafkaListenerEndpointRegistry registry;
+    private final NotificationMetrics notificationMetrics;
+
+    public PipelineEventListener(
+            KafkaEventListener userEventListener,
+            ApplicationEventConsumer applicationEventConsumer,
+            DeadLetterPublishingRecoverer deadLetterPublishingRecoverer,
+            KafkaListenerEndpointRegistry registry,
+            NotificationPipeline notificationPipeline,
+            @Value("${notification.kafka.recover.back-off:1s}") Duration recoverBackOff,
+            NotificationMetrics notificationMetrics) {
+        this.userEventListener = userEventListener;
+        this.applicationEventConsumer = applicationEventConsumer;
+        this.retryTierRecovery = new RetryTierRecovery(deadLetterPublishingRecoverer, recoverBackOff);
+        this.registry = registry;
+        this.notificationMetrics = notificationMetrics;
+        notificationPipeline.addBackpressureListener(this);
+    }
+
+    @KafkaListener(id = "userEventsPipeline", topics = "user-events", groupId = "notification-service",
+                   containerFactory = "asyncAckContainerFactory",
+                   autoStartup = "#{'${notification.kafka.listener-mode:record}' == 'pipeline'}")
+    public void onUserEvent(ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+        dispatch(record, ack, userEventListener::submit);
+    }
+
+    @KafkaListener(id = "applicationEventsPipeline", topics = "application-events", groupId = "notification-service",
+                   containerFactory = "asyncAckContainerFactory",
+                   autoStartup = "#{'${notification.kafka.listener-mode:record}' == 'pipeline'}")
+    public void onApplicationEvent(ConsumerRecord<String, byte[]> record, Acknowledgment ack) {
+        dispatch(record, ack, applicationEventConsumer::submit);
+    }
+
+    private void dispatch(ConsumerRecord<String, byte[]> record, Acknowledgment ack,
+                          Function<ConsumerRecord<String, byte[]>, CompletableFuture<String>> handler) {
+        CompletableFuture<String> result;
+        try {
+            result = handler.apply(record);
+        } catch (Exception e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((eventType, failure) -> {
+            if (failure == null) {
+                Acknowledgments.acknowledge(record, eventType, ack, notificationMetrics);
+            } else if (retryTierRecovery.recover(record, failure)) {
+                Acknowledgments.acknowledge(record, Acknowledgments.eventTypeOf(record), ack, notificationMetrics);
+            }
+            // Otherwise never committed, so the record is redelivered after the restart
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryTierRecovery.close();
+    }
+
+    @Override
+    public void onSaturated() {
+        forEachContainer(MessageListenerContainer::pause);
+    }
+
+    @Override
+    public void onDrained() {
+        forEachContainer(MessageListenerContainer::resume);
+    }
+
+    private void forEachContainer(Consumer<MessageListenerContainer> action) {
+        for (String id : LISTENER_IDS) {
+            MessageListenerContainer container = registry.getListenerContainer(id);
+            if (container != null && container.isRunning()) {
+                action.accept(container);
+            }
+        }
+    }
+}
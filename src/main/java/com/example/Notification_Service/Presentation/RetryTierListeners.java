@@ -0,0 +1,97 @@
+package com.example.Notification_Service.Presentation;
+
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import com.example.Notification_Service.Infrastructure.RetryTiers;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One consumer per retry tier of each topic, running in every listener mode.
+ * Records that are not due yet are nacked for the remaining time, which pauses only that
+ * tier's consumer; due records are handled like fresh events, and failures move on to the
+ * next tier (or the DLT) through the container's error handler.
+ */
+@Component
+public class RetryTierListeners implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryTierListeners.class);
+
+    private final List<ConcurrentMessageListenerContainer<String, byte[]>> containers = new ArrayList<>();
+    private volatile boolean running;
+
+    public RetryTierListeners(
+            KafkaEventListener userEventListener,
+            ApplicationEventConsumer applicationEventConsumer,
+            RetryTiers retryTiers,
+            @Qualifier("retryTierContainerFactory") ConcurrentKafkaListenerContainerFactory<String, byte[]> factory,
+            NotificationMetrics notificationMetrics) {
+        register(factory, retryTiers, "user-events", userEventListener::process, notificationMetrics);
+        register(factory, retryTiers, "application-events", applicationEventConsumer::process, notificationMetrics);
+    }
+
+    private void register(ConcurrentKafkaListenerContainerFactory<String, byte[]> factory, RetryTiers retryTiers,
+                          String baseTopic, Function<ConsumerRecord<String, byte[]>, String> handler,
+                          NotificationMetrics notificationMetrics) {
+        for (int tier = 0; tier < retryTiers.size(); tier++) {
+            String topic = retryTiers.topic(baseTopic, tier);
+            ConcurrentMessageListenerContainer<String, byte[]> container = factory.createContainer(topic);
+            container.getContainerProperties().setGroupId("notification-service");
+            container.setBeanName(topic);
+            container.setupMessageListener(
+                (AcknowledgingMessageListener<String, byte[]>) (record, ack) ->
+                    dispatch(record, ack, handler, notificationMetrics, Instant.now()));
+            containers.add(container);
+        }
+    }
+
+    static void dispatch(ConsumerRecord<String, byte[]> record, Acknowledgment ack,
+                         Function<ConsumerRecord<String, byte[]>, String> handler, NotificationMetrics notificationMetrics,
+                         Instant now) {
+        Duration remaining = RetryTiers.remaining(record.headers(), now);
+        if (!remaining.isZero()) {
+            // Later records in a tier are due later still, so waiting on this one holds nothing back
+            ack.nack(remaining);
+            return;
+        }
+        logger.info("Retrying record {}-{}@{}", record.topic(), record.partition(), record.offset());
+        String eventType = handler.apply(record);
+        Acknowledgments.acknowledge(record, eventType, ack, notificationMetrics);
+    }
+
+    @Override
+    public void start() {
+        containers.forEach(ConcurrentMessageListenerContainer::start);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        containers.forEach(ConcurrentMessageListenerContainer::stop);
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.Notification_Service.Presentation;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+
+import java.time.Duration;
+
+/**
+ * Publishes records that failed on a worker thread to their next retry tier, for the listener modes
+ * that ack off the consumer thread. Such records may only be acked once they are published, so a
+ * failed publish is retried after a back off. A record still unpublished at shutdown is left
+ * unacknowledged; its offset is never committed and Kafka redelivers it.
+ * <p>
+ * Nacking is not an option here: it only works on the consumer thread.
+ */
+final class RetryTierRecovery {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryTierRecovery.class);
+
+    private final DeadLetterPublishingRecoverer deadLetterPublishingRecoverer;
+    private final long backOffMillis;
+    private volatile boolean closed;
+
+    RetryTierRecovery(DeadLetterPublishingRecoverer deadLetterPublishingRecoverer, Duration backOff) {
+        this.deadLetterPublishingRecoverer = deadLetterPublishingRecoverer;
+        this.backOffMillis = backOff.toMillis();
+    }
+
+    /**
+     * @return true once the record is on a retry tier (or the DLT) and may be acked,
+     *         false if it must stay unacknowledged because the service is shutting down
+     */
+    boolean recover(ConsumerRecord<String, byte[]> record, Throwable failure) {
+        Exception cause = failure instanceof Exception e ? e : new RuntimeException(failure);
+        logger.error("Sending record {}-{}@{} to retry tier: {}",
+            record.topic(), record.partition(), record.offset(), cause.getMessage());
+        while (true) {
+            try {
+                deadLetterPublishingRecoverer.accept(record, cause);
+                return true;
+            } catch (Exception dltFailure) {
+                logger.error("Failed to publish record {}-{}@{} to retry tier, trying again in {} ms",
+                    record.topic(), record.partition(), record.offset(), backOffMillis, dltFailure);
+            }
+            if (!backOff()) {
+                logger.warn("Leaving record {}-{}@{} unacknowledged, it will be redelivered",
+                    record.topic(), record.partition(), record.offset());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Stops retrying publishes; records still waiting for one are left unacknowledged.
+     */
+    void close() {
+        closed = true;
+    }
+
+    private boolean backOff() {
+        if (closed) {
+            return false;
+        }
+        try {
+            Thread.sleep(backOffMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return !closed;
+    }
+}
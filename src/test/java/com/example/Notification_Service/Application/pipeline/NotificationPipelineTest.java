@@ -0,0 +1,137 @@
+package com.example.Notification_Service.Application.pipeline;
+
+import com.example.Notification_Service.Domain.EmailMessage;
+import com.example.Notification_Service.Domain.SendResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationPipelineTest {
+
+    private final CountDownLatch releaseSends = new CountDownLatch(1);
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    private final NotificationPipeline pipeline = new NotificationPipeline(message -> {
+        try {
+            releaseSends.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (message.to().startsWith("fail")) {
+            throw new RuntimeException("Provider down");
+        }
+        sent.add(message.to());
+    }, 2, 10, 4);
+
+    @AfterEach
+    void tearDown() {
+        releaseSends.countDown();
+        pipeline.shutdown();
+    }
+
+    @Test
+    void pausesWhenSendBacklogFillsAndResumesOnceDrained() {
+        pipeline.addBackpressureListener(new BackpressureListener() {
+            @Override
+            public void onSaturated() {
+                events.add("saturated");
+            }
+
+            @Override
+            public void onDrained() {
+                events.add("drained");
+            }
+        });
+
+        List<CompletableFuture<SendResult>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String to = "user" + i + "@example.com";
+            results.add(pipeline.submit(() -> new EmailMessage(to, "Subject", "Body", "user")));
+        }
+        waitFor(() -> events.contains("saturated"));
+        assertThat(events).containsExactly("saturated");
+
+        releaseSends.countDown();
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+
+        assertThat(events).containsExactly("saturated", "drained");
+        assertThat(sent).hasSize(4);
+    }
+
+    @Test
+    void pausesBeforeTheComposeQueueFillsAndRejectsOnceItIsFull() {
+        CountDownLatch releaseComposes = new CountDownLatch(1);
+        pipeline.addBackpressureListener(new BackpressureListener() {
+            @Override
+            public void onSaturated() {
+                events.add("saturated");
+            }
+
+            @Override
+            public void onDrained() {
+                events.add("drained");
+            }
+        });
+
+        // 2 composing and 10 queued fill the compose stage
+        List<CompletableFuture<SendResult>> results = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            String to = "user" + i + "@example.com";
+            results.add(pipeline.submit(() -> {
+                try {
+                    releaseComposes.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new EmailMessage(to, "Subject", "Body", "user");
+            }));
+            if (i == 4) {
+                assertThat(events).containsExactly("saturated");
+            }
+        }
+        CompletableFuture<SendResult> overflow = pipeline.submit(
+            () -> new EmailMessage("overflow@example.com", "Subject", "Body", "user"));
+
+        assertThatThrownBy(overflow::join).hasCauseInstanceOf(RejectedExecutionException.class);
+
+        releaseComposes.countDown();
+        releaseSends.countDown();
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+
+        assertThat(events).containsExactly("saturated", "drained");
+        assertThat(sent).hasSize(12);
+    }
+
+    @Test
+    void failedComposeOrSendCompletesExceptionally() {
+        releaseSends.countDown();
+
+        CompletableFuture<SendResult> composeFailure = pipeline.submit(() -> {
+            throw new IllegalStateException("Bad template");
+        });
+        CompletableFuture<SendResult> sendFailure = pipeline.submit(
+            () -> new EmailMessage("fail@example.com", "Subject", "Body", "user"));
+
+        assertThatThrownBy(composeFailure::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(sendFailure::join).hasRootCauseMessage("Provider down");
+    }
+
+    private static void waitFor(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.example.Notification_Service.Application.usecases;
 
+import com.example.Notification_Service.Application.ports.DeliveryLedger;
 import com.example.Notification_Service.Application.ports.EmailSender;
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import com.example.Notification_Service.Domain.DeliveryKey;
 import com.example.Notification_Service.Domain.EmailMessage;
 import com.example.Notification_Service.Domain.EmailNotificationService;
 import com.example.Notification_Service.Domain.VerificationEmailData;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -22,6 +34,12 @@ class SendVerificationEmailUseCaseTest {
     @Mock
     private EmailSender emailSender;
 
+    @Mock
+    private DeliveryLedger deliveryLedger;
+
+    @Mock
+    private NotificationMetrics notificationMetrics;
+
     @InjectMocks
     private SendVerificationEmailUseCaseImpl sendVerificationEmailUseCase;
 
@@ -40,14 +58,74 @@ class SendVerificationEmailUseCaseTest {
             24
         );
         EmailMessage emailMessage = new EmailMessage("test@example.com", "Verify Your Email", "Body", userId);
+        Instant eventTime = Instant.parse("2026-01-05T10:15:30Z");
 
         when(emailNotificationService.composeVerificationEmail(data, userId)).thenReturn(emailMessage);
 
         // When
-        sendVerificationEmailUseCase.sendVerificationEmail(data, userId);
+        sendVerificationEmailUseCase.sendVerificationEmail(data, userId, eventTime);
 
         // Then
         verify(emailNotificationService).composeVerificationEmail(data, userId);
-        verify(emailSender).sendEmail(emailMessage);
+        verify(emailSender).sendEmail(emailMessage.withEvent("UserRegistered", eventTime));
+        verify(deliveryLedger).markDelivered(new DeliveryKey("UserRegistered", userId, "verification"));
+    }
+
+    @Test
+    void shouldSkipAlreadyDeliveredVerificationEmail() {
+        // Given
+        String userId = "user123";
+        VerificationEmailData data = new VerificationEmailData(
+            "John",
+            "test@example.com",
+            "token123",
+            "http://localhost:3000",
+            "JobHub",
+            "https://jobhub.com/logo.png",
+            "http://localhost:3000/support",
+            24
+        );
+        when(deliveryLedger.isDelivered(new DeliveryKey("UserRegistered", userId, "verification"))).thenReturn(true);
+
+        // When
+        sendVerificationEmailUseCase.sendVerificationEmail(data, userId, null);
+
+        // Then
+        verifyNoInteractions(emailNotificationService, emailSender);
+    }
+
+    @Test
+    void shouldRecordCompositionInFlightRecording() throws Exception {
+        // Given
+        String userId = "user123";
+        VerificationEmailData data = new VerificationEmailData(
+            "John",
+            "test@example.com",
+            "token123",
+            "http://localhost:3000",
+            "JobHub",
+            "https://jobhub.com/logo.png",
+            "http://localhost:3000/support",
+            24
+        );
+        EmailMessage emailMessage = new EmailMessage("test@example.com", "Verify Your Email", "Body", userId);
+        when(emailNotificationService.composeVerificationEmail(data, userId)).thenReturn(emailMessage);
+        Path dump = Files.createTempFile("compose", ".jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable("com.example.notification.EmailComposed");
+            recording.start();
+            sendVerificationEmailUseCase.sendVerificationEmail(data, userId, Instant.now());
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.delete(dump);
+        assertEquals(1, events.size());
+        assertEquals("verification", events.get(0).getString("template"));
+        assertEquals("UserRegistered", events.get(0).getString("eventType"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.example.Notification_Service.Domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emails per second for each {@code compose*Email} method of {@link EmailNotificationServiceImpl}:
+ * composing alone (binding values to the compiled template) and composing plus streaming the
+ * body, which is what a send costs on top. Run with
+ * {@code ./mvnw -Pbenchmark test -Dbenchmark.include=EmailComposition}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailCompositionBenchmark {
+
+    private final EmailNotificationServiceImpl service = new EmailNotificationServiceImpl();
+
+    private final VerificationEmailData verification = new VerificationEmailData(
+        "John", "test@example.com", "2f1c7a9e-4b1d-4c7e-9d0a-5a8f3e6b2c11", "http://localhost:3000",
+        "JobHub", "https://jobhub.com/logo.png", "http://localhost:3000/support", 24);
+
+    private final ApplicationEmailData congratulations = new ApplicationEmailData(
+        "Jane Doe", "jane@example.com", "Backend Engineer", "Acme", "2026-01-15", "app-42",
+        "JobHub", "https://jobhub.com/logo.png", "http://localhost:3000",
+        "http://localhost:3000/unsubscribe", "http://localhost:3000/privacy");
+
+    private final ResumeViewedEmailData resumeViewed = new ResumeViewedEmailData(
+        "Jane Doe", "jane@example.com", "Backend Engineer", "Acme", "company-1", "employer-1",
+        "user123", "app-42", "2026-01-16T09:30:00Z", "JobHub", "https://jobhub.com/logo.png", "http://localhost:3000",
+        "http://localhost:3000/unsubscribe", "http://localhost:3000/privacy");
+
+    @Benchmark
+    public EmailMessage composeVerification() {
+        return service.composeVerificationEmail(verification, "user123");
+    }
+
+    @Benchmark
+    public EmailMessage composeCongratulations() {
+        return service.composeCongratulationsEmail(congratulations, "user123");
+    }
+
+    @Benchmark
+    public EmailMessage composeResumeViewed() {
+        return service.composeResumeViewedEmail(resumeViewed, "user123");
+    }
+
+    @Benchmark
+    public void composeAndStreamVerification() throws IOException {
+        service.composeVerificationEmail(verification, "user123").content().writeTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void composeAndStreamCongratulations() throws IOException {
+        service.composeCongratulationsEmail(congratulations, "user123").content().writeTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void composeAndStreamResumeViewed() throws IOException {
+        service.composeResumeViewedEmail(resumeViewed, "user123").content().writeTo(OutputStream.nullOutputStream());
+    }
+}
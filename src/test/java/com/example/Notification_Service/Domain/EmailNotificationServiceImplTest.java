@@ -0,0 +1,104 @@
+package com.example.Notification_Service.Domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailNotificationServiceImplTest {
+
+    private final EmailNotificationServiceImpl service = new EmailNotificationServiceImpl();
+
+    @Test
+    void verificationEmailMatchesStringFormatOutput() {
+        VerificationEmailData data = new VerificationEmailData(
+            "John",
+            "test@example.com",
+            "token123",
+            "http://localhost:3000",
+            "JobHub",
+            "https://jobhub.com/logo.png",
+            "http://localhost:3000/support",
+            24
+        );
+
+        EmailMessage message = service.composeVerificationEmail(data, "user123");
+
+        String expected = String.format(EmailNotificationServiceImpl.VERIFICATION_TEMPLATE.source(),
+            data.getAppName(), data.getAppLogoUrl(), data.getAppName(), data.getAppName(), data.getFirstName(),
+            data.getAppName(), data.getVerificationLink(), data.getVerificationLink(), data.getTokenExpirationHours(),
+            data.getAppName(), data.getSupportUrl(), data.getAppUrl(), data.getAppUrl(), data.getSupportUrl(),
+            data.getAppName(), data.getAppName());
+        assertThat(message.body()).isEqualTo(expected);
+        assertThat(message.subject()).isEqualTo("Verify Your Email Address - Welcome to JobHub!");
+        assertThat(message.to()).isEqualTo("test@example.com");
+    }
+
+    @Test
+    void congratulationsEmailMatchesStringFormatOutput() {
+        ApplicationEmailData data = new ApplicationEmailData(
+            "Jane Doe", "jane@example.com", "Backend Engineer", "Acme", "2026-01-15", "app-42",
+            "JobHub", "https://jobhub.com/logo.png", "http://localhost:3000",
+            "http://localhost:3000/unsubscribe", "http://localhost:3000/privacy"
+        );
+
+        EmailMessage message = service.composeCongratulationsEmail(data, "user123");
+
+        String expected = String.format(EmailNotificationServiceImpl.CONGRATULATIONS_TEMPLATE.source(),
+            data.appName(), data.appLogoUrl(), data.appName(), data.jobTitle(), data.companyName(),
+            data.appliedDate(), data.appName(), data.getApplicationStatusLink(), data.appName(),
+            data.unsubscribeUrl(), data.privacyUrl());
+        assertThat(message.body()).isEqualTo(expected);
+        assertThat(message.subject())
+            .isEqualTo(String.format("🎉 Application Submitted! %s at %s", data.jobTitle(), data.companyName()));
+    }
+
+    @Test
+    void resumeViewedEmailMatchesStringFormatOutputWithNullValues() {
+        ResumeViewedEmailData data = new ResumeViewedEmailData(
+            "Jane Doe", "jane@example.com", "Backend Engineer", "Acme", "company-1", "employer-1",
+            "user123", "app-42", null, "JobHub", "https://jobhub.com/logo.png", "http://localhost:3000",
+            "http://localhost:3000/unsubscribe", "http://localhost:3000/privacy"
+        );
+
+        EmailMessage message = service.composeResumeViewedEmail(data, "user123");
+
+        String expected = String.format(EmailNotificationServiceImpl.RESUME_VIEWED_TEMPLATE.source(),
+            data.appName(), data.applicantName(), data.companyName(), data.companyName(), data.jobTitle(),
+            data.viewedDate(), data.companyName(), data.getApplicationStatusLink(), data.appName(),
+            data.privacyUrl(), data.appUrl(), data.unsubscribeUrl(), data.appName());
+        assertThat(message.body()).isEqualTo(expected);
+        assertThat(message.subject()).isEqualTo(String.format("👀 %s viewed your resume for %s at %s",
+            data.companyName(), data.jobTitle(), data.companyName()));
+    }
+
+    @Test
+    void streamedBodyMatchesRenderedBody() throws Exception {
+        ApplicationEmailData data = new ApplicationEmailData(
+            "Zoë Łukasik", "zoe@example.com", "Ingénieure", "Café Ltd", "2026-01-15", "app-42",
+            "JobHub", "https://jobhub.com/logo.png", "http://localhost:3000",
+            "http://localhost:3000/unsubscribe", "http://localhost:3000/privacy"
+        );
+        EmailBody body = service.composeCongratulationsEmail(data, "user123").content();
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        body.writeTo(written);
+        byte[] streamed = body.openStream().readAllBytes();
+
+        byte[] expected = body.asString().getBytes(StandardCharsets.UTF_8);
+        assertThat(written.toByteArray()).isEqualTo(expected);
+        assertThat(streamed).isEqualTo(expected);
+    }
+
+    @Test
+    void templateRejectsWrongNumberOfValues() {
+        EmailTemplate template = EmailTemplate.compile("Hello %s, 100%% done%n");
+
+        assertThat(template.slotCount()).isEqualTo(1);
+        assertThat(template.render("Ann")).isEqualTo(String.format("Hello %s, 100%% done%n", "Ann"));
+        assertThatThrownBy(() -> template.render("Ann", "Bob")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.Notification_Service.Domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rendering the verification email with {@code String.format} against the
+ * pre-compiled {@link EmailTemplate}, both rendered to a String and streamed as
+ * pre-encoded UTF-8 bytes. Run with the {@code benchmark} profile, which
+ * enables the GC profiler so {@code gc.alloc.rate.norm} shows bytes allocated per email.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private final EmailNotificationServiceImpl service = new EmailNotificationServiceImpl();
+
+    private final VerificationEmailData data = new VerificationEmailData(
+        "John",
+        "test@example.com",
+        "2f1c7a9e-4b1d-4c7e-9d0a-5a8f3e6b2c11",
+        "http://localhost:3000",
+        "JobHub",
+        "https://jobhub.com/logo.png",
+        "http://localhost:3000/support",
+        24
+    );
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(EmailNotificationServiceImpl.VERIFICATION_TEMPLATE.source(),
+            data.getAppName(), data.getAppLogoUrl(), data.getAppName(), data.getAppName(), data.getFirstName(),
+            data.getAppName(), data.getVerificationLink(), data.getVerificationLink(), data.getTokenExpirationHours(),
+            data.getAppName(), data.getSupportUrl(), data.getAppUrl(), data.getAppUrl(), data.getSupportUrl(),
+            data.getAppName(), data.getAppName());
+    }
+
+    @Benchmark
+    public String compiledTemplate() {
+        return service.composeVerificationEmail(data, "user123").body();
+    }
+
+    @Benchmark
+    public void streamedTemplate() throws IOException {
+        service.composeVerificationEmail(data, "user123").content().writeTo(OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.Notification_Service.Domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link HtmlEscaper} against the usual chain of {@code String.replace} calls,
+ * for a value that needs no escaping (the common case) and one that does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlEscaperBenchmark {
+
+    @Param({"Senior Backend Engineer at Acme Corporation", "R&D <Platform> Engineer at \"O'Brien & Sons\""})
+    public String value;
+
+    @Benchmark
+    public String naiveReplaceChain() {
+        return value.replace("&", "&amp;")
+            .replace("<", "&lt;")
+            .replace(">", "&gt;")
+            .replace("\"", "&quot;")
+            .replace("'", "&#39;");
+    }
+
+    @Benchmark
+    public String singlePassEscaper() {
+        return HtmlEscaper.escape(value, SlotType.ATTRIBUTE);
+    }
+}
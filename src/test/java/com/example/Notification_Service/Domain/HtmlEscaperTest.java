@@ -0,0 +1,50 @@
+package com.example.Notification_Service.Domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HtmlEscaperTest {
+
+    @Test
+    void shouldReturnSameInstanceWhenNothingToEscape() {
+        String value = "Senior Backend Engineer";
+
+        assertThat(HtmlEscaper.escape(value, SlotType.HTML_TEXT)).isSameAs(value);
+        assertThat(HtmlEscaper.escape(value, SlotType.ATTRIBUTE)).isSameAs(value);
+        assertThat(HtmlEscaper.escape("https://jobhub.com/jobs/42", SlotType.URL)).isSameAs("https://jobhub.com/jobs/42");
+    }
+
+    @Test
+    void shouldEscapePerSlotType() {
+        String value = "R&D <Core> \"Platform\" O'Brien";
+
+        assertThat(HtmlEscaper.escape(value, SlotType.HTML_TEXT))
+            .isEqualTo("R&amp;D &lt;Core&gt; \"Platform\" O'Brien");
+        assertThat(HtmlEscaper.escape(value, SlotType.ATTRIBUTE))
+            .isEqualTo("R&amp;D &lt;Core&gt; &quot;Platform&quot; O&#39;Brien");
+        assertThat(HtmlEscaper.escape("/search?q=a b&x=\"1\"", SlotType.URL))
+            .isEqualTo("/search?q=a%20b&amp;x=%221%22");
+    }
+
+    @Test
+    void shouldBlockUnsafeUrlSchemes() {
+        assertThat(HtmlEscaper.escape("javascript:alert(1)", SlotType.URL)).isEqualTo(HtmlEscaper.BLOCKED_URL);
+        assertThat(HtmlEscaper.escape(" JavaScript:alert(1)", SlotType.URL)).isEqualTo(HtmlEscaper.BLOCKED_URL);
+        assertThat(HtmlEscaper.escape("HTTPS://jobhub.com", SlotType.URL)).isEqualTo("HTTPS://jobhub.com");
+        assertThat(HtmlEscaper.escape("mailto:support@jobhub.com", SlotType.URL)).isEqualTo("mailto:support@jobhub.com");
+    }
+
+    @Test
+    void shouldInferSlotTypesFromTemplateMarkup() {
+        EmailTemplate template = EmailTemplate.compile("<a href=\"%s\" title='%s'>%s</a>");
+
+        assertThat(template.slotType(0)).isEqualTo(SlotType.URL);
+        assertThat(template.slotType(1)).isEqualTo(SlotType.ATTRIBUTE);
+        assertThat(template.slotType(2)).isEqualTo(SlotType.HTML_TEXT);
+        assertThat(template.render("javascript:x()", "it's", "<b>"))
+            .isEqualTo("<a href=\"#\" title='it&#39;s'>&lt;b&gt;</a>");
+        assertThat(template.bind("/jobs", "a\"b", "&").asString())
+            .isEqualTo("<a href=\"/jobs\" title='a&quot;b'>&amp;</a>");
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailSendLogIndexesTest {
+
+    @Mock
+    private MongoOperations mongoOperations;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Test
+    void shouldCreateLookupAndTtlIndexes() {
+        when(mongoOperations.indexOps(EmailSendLog.class)).thenReturn(indexOperations);
+        when(indexOperations.getIndexInfo()).thenReturn(List.of());
+
+        new EmailSendLogIndexes(Optional.of(mongoOperations), Duration.ofDays(30), false).ensureIndexes(mongoOperations);
+
+        ArgumentCaptor<Index> indexes = ArgumentCaptor.forClass(Index.class);
+        verify(indexOperations, times(4)).createIndex(indexes.capture());
+        assertThat(indexes.getAllValues()).extracting(index -> index.getIndexKeys().keySet())
+            .containsExactly(Set.of("u", "ts", "_id"), Set.of("e", "ts", "_id"), Set.of("a", "ts", "_id"), Set.of("ts"));
+        assertThat(indexes.getAllValues().get(3).getIndexOptions().get("expireAfterSeconds")).isEqualTo(Duration.ofDays(30).toSeconds());
+    }
+
+    @Test
+    void shouldUpdateTtlInPlaceWhenRetentionChanged() {
+        when(mongoOperations.indexOps(EmailSendLog.class)).thenReturn(indexOperations);
+        when(mongoOperations.getCollectionName(EmailSendLog.class)).thenReturn("email_send_logs");
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(IndexInfo.indexInfoOf(new Document("name", EmailSendLogIndexes.TTL_INDEX)
+            .append("key", new Document("ts", 1))
+            .append("expireAfterSeconds", Duration.ofDays(90).toSeconds()))));
+
+        new EmailSendLogIndexes(Optional.of(mongoOperations), Duration.ofDays(30), false).ensureIndexes(mongoOperations);
+
+        ArgumentCaptor<Document> command = ArgumentCaptor.forClass(Document.class);
+        verify(mongoOperations).executeCommand(command.capture());
+        assertThat(command.getValue().get("index", Document.class).get("expireAfterSeconds")).isEqualTo(Duration.ofDays(30).toSeconds());
+        verify(indexOperations, times(3)).createIndex(any(Index.class));
+    }
+
+    @Test
+    void shouldLeaveMatchingTtlIndexAlone() {
+        when(mongoOperations.indexOps(EmailSendLog.class)).thenReturn(indexOperations);
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(IndexInfo.indexInfoOf(new Document("name", EmailSendLogIndexes.TTL_INDEX)
+            .append("key", new Document("ts", 1))
+            .append("expireAfterSeconds", Duration.ofDays(30).toSeconds()))));
+
+        new EmailSendLogIndexes(Optional.of(mongoOperations), Duration.ofDays(30), false).ensureIndexes(mongoOperations);
+
+        verify(mongoOperations, never()).executeCommand(any(Document.class));
+    }
+
+    @Test
+    void shouldRenameLegacyFieldsToTheStoredNames() {
+        when(mongoOperations.getCollectionName(EmailSendLog.class)).thenReturn("email_send_logs");
+        when(mongoOperations.updateMulti(any(Query.class), any(UpdateDefinition.class), eq("email_send_logs")))
+            .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+        new EmailSendLogIndexes(Optional.of(mongoOperations), Duration.ofDays(30), true).renameLegacyFields(mongoOperations);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoOperations).updateMulti(query.capture(), update.capture(), eq("email_send_logs"));
+        assertThat(query.getValue().getQueryObject()).isEqualTo(new Document("timestamp", new Document("$exists", true)));
+        assertThat(update.getValue().getUpdateObject().get("$rename", Document.class)).isEqualTo(new Document(Map.of(
+            "userId", "u", "email", "e", "success", "ok", "errorMessage", "err", "timestamp", "ts")));
+    }
+
+    @Test
+    void shouldStoreTheFieldNamesTheIndexesUse() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        Document stored = new Document();
+
+        converter.write(new EmailSendLog(null, "user1", "user1@example.com", null, true, null, LocalDateTime.now()), stored);
+
+        assertThat(stored.keySet()).containsExactlyInAnyOrder("u", "e", "ok", "ts", "_class");
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Insert and lookup cost of {@code email_send_logs} at {@code documents} documents, with and
+ * without the indexes from {@link EmailSendLogIndexes}. Needs a throwaway local mongod, e.g.
+ * {@code docker run -p 27017:27017 mongo:7}; the first run seeds the collection, which takes a few minutes.
+ * Run with {@code ./mvnw -Pbenchmark test -Dbenchmark.include=EmailSendLogStorage -Dbenchmark.mongo.uri=mongodb://localhost:27017}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Threads(4)
+@Fork(1)
+public class EmailSendLogStorageBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailSendLogStorageBenchmark.class);
+
+    private static final int SEED_BATCH = 10_000;
+    private static final int INSERT_BATCH = 500;
+
+    @Param({"10000000"})
+    public int documents;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private MongoClient client;
+    private MongoTemplate mongo;
+    private int users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String uri = System.getProperty("benchmark.mongo.uri", "mongodb://localhost:27017");
+        client = MongoClients.create(uri);
+        mongo = new MongoTemplate(client, "notification_benchmark");
+        users = documents / 10;
+        seed();
+        mongo.indexOps(EmailSendLog.class).dropAllIndexes();
+        if (indexed) {
+            new EmailSendLogIndexes(Optional.of(mongo), Duration.ofDays(30), false).ensureIndexes(mongo);
+        }
+    }
+
+    // Raw documents in the stored (compact) shape, inserted without mapping to keep seeding fast
+    private void seed() {
+        MongoCollection<Document> collection = mongo.getCollection(mongo.getCollectionName(EmailSendLog.class));
+        long existing = collection.estimatedDocumentCount();
+        long start = System.currentTimeMillis() - Duration.ofDays(20).toMillis();
+        List<Document> batch = new ArrayList<>(SEED_BATCH);
+        for (long i = existing; i < documents; i++) {
+            int user = (int) (i % users);
+            Document log = new Document("u", "user-" + user)
+                .append("e", "user" + user + "@example.com")
+                .append("ok", i % 50 != 0)
+                .append("ts", new Date(start + i * 100));
+            if (i % 50 == 0) {
+                log.append("err", "Connection timed out");
+            }
+            batch.add(log);
+            if (batch.size() == SEED_BATCH) {
+                collection.insertMany(batch, new InsertManyOptions().ordered(false));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            collection.insertMany(batch, new InsertManyOptions().ordered(false));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Document stats = mongo.executeCommand(new Document("collStats", mongo.getCollectionName(EmailSendLog.class)));
+        logger.info("indexed={}: {} documents, avg {} bytes each, {} bytes of indexes",
+            indexed, stats.get("count"), stats.get("avgObjSize"), stats.get("totalIndexSize"));
+        client.close();
+    }
+
+    /**
+     * One bulk write as issued by {@link EmailSendLogWriter}.
+     */
+    @Benchmark
+    public void bulkInsert() {
+        List<EmailSendLog> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < INSERT_BATCH; i++) {
+            int user = ThreadLocalRandom.current().nextInt(users);
+            batch.add(new EmailSendLog(null, "user-" + user, "user" + user + "@example.com", null, true, null, LocalDateTime.now()));
+        }
+        mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, EmailSendLog.class).insert(batch).execute();
+    }
+
+    @Benchmark
+    public List<EmailSendLog> recentByUser() {
+        String userId = "user-" + ThreadLocalRandom.current().nextInt(users);
+        return mongo.find(Query.query(where("userId").is(userId)).with(Sort.by(Sort.Direction.DESC, "timestamp")).limit(20),
+            EmailSendLog.class);
+    }
+
+    @Benchmark
+    public List<EmailSendLog> recentByEmail() {
+        String email = "user" + ThreadLocalRandom.current().nextInt(users) + "@example.com";
+        return mongo.find(Query.query(where("email").is(email)).with(Sort.by(Sort.Direction.DESC, "timestamp")).limit(20),
+            EmailSendLog.class);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.Notification_Service.Infrastructure;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailSendLogWriterTest {
+
+    @Mock
+    private MongoOperations mongoOperations;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MicrometerNotificationMetrics metrics = new MicrometerNotificationMetrics(meterRegistry, List.of());
+
+    @Test
+    void shouldInsertBufferedLogsInBatchesAndFlushOnShutdown() {
+        stubBulkInsert(null);
+        EmailSendLogWriter writer = new EmailSendLogWriter(Optional.of(mongoOperations), metrics, 100, 10, Duration.ofSeconds(5));
+
+        for (int i = 0; i < 25; i++) {
+            writer.write(log(i));
+        }
+        writer.shutdown();
+
+        assertThat(batchSizes).allMatch(size -> size <= 10);
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(25);
+        assertThat(writer.writtenCount()).isEqualTo(25);
+        assertThat(writer.droppedCount()).isZero();
+        assertThat(meterRegistry.get(MicrometerNotificationMetrics.SEND_LOG_ENTRIES).tag("outcome", "written").counter().count())
+            .isEqualTo(25);
+        assertThat(meterRegistry.get(MicrometerNotificationMetrics.SEND_LOG_WRITE).timer().count()).isEqualTo(batchSizes.size());
+    }
+
+    @Test
+    void shouldDropAndCountWhenBufferIsFull() throws Exception {
+        CountDownLatch releaseInsert = new CountDownLatch(1);
+        stubBulkInsert(releaseInsert);
+        EmailSendLogWriter writer = new EmailSendLogWriter(Optional.of(mongoOperations), metrics, 5, 1, Duration.ofMillis(10));
+
+        // The first entry is taken by the flusher, which then blocks inside the insert
+        writer.write(log(0));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batchSizes.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        int accepted = 0;
+        for (int i = 1; i <= 10; i++) {
+            if (writer.write(log(i))) {
+                accepted++;
+            }
+        }
+        releaseInsert.countDown();
+        writer.shutdown();
+
+        assertThat(accepted).isEqualTo(5);
+        assertThat(writer.droppedCount()).isEqualTo(5);
+        assertThat(meterRegistry.get(MicrometerNotificationMetrics.SEND_LOG_ENTRIES).tag("outcome", "dropped").counter().count())
+            .isEqualTo(5);
+        assertThat(writer.writtenCount()).isEqualTo(6);
+    }
+
+    private void stubBulkInsert(CountDownLatch release) {
+        when(mongoOperations.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(EmailSendLog.class))).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            batchSizes.add(((List<?>) invocation.getArgument(0)).size());
+            if (release != null) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return bulkOperations;
+        });
+        when(bulkOperations.execute()).thenReturn(null);
+    }
+
+    private static EmailSendLog log(int i) {
+        return new EmailSendLog(null, "user" + i, "user" + i + "@example.com", null, true, null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Domain.EmailMessage;
+import com.example.Notification_Service.Domain.EmailNotificationServiceImpl;
+import com.example.Notification_Service.Domain.SendResult;
+import com.example.Notification_Service.Domain.VerificationEmailData;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JavaMailEmailProviderTest {
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Test
+    void shouldStreamTemplateBodyIntoHtmlPart() throws Exception {
+        Session session = Session.getInstance(new Properties());
+        when(mailSender.createMimeMessage()).thenReturn(new MimeMessage(session));
+        JavaMailEmailProvider provider = new JavaMailEmailProvider(mailSender, "noreply@jobhub.com", Optional.empty(), 10,
+            Optional.empty(), Optional.empty(), new StandardEnvironment());
+        EmailMessage emailMessage = new EmailNotificationServiceImpl().composeVerificationEmail(
+            new VerificationEmailData("Zoë", "test@example.com", "token123", "http://localhost:3000",
+                "JobHub", "https://jobhub.com/logo.png", "http://localhost:3000/support", 24),
+            "user123");
+
+        provider.sendEmail(emailMessage);
+
+        ArgumentCaptor<MimeMessage> captor = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(mailSender).send(captor.capture());
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        captor.getValue().writeTo(wire);
+
+        MimeMessage parsed = new MimeMessage(session, new ByteArrayInputStream(wire.toByteArray()));
+        MimeMultipart mixed = (MimeMultipart) parsed.getContent();
+        MimeMultipart related = (MimeMultipart) mixed.getBodyPart(0).getContent();
+        assertThat(related.getBodyPart(0).getContentType()).isEqualTo("text/html;charset=UTF-8");
+        // Line breaks come back canonicalized to CRLF after the round trip
+        assertThat(((String) related.getBodyPart(0).getContent()).replace("\r\n", "\n")).isEqualTo(emailMessage.body());
+    }
+
+    @Test
+    void shouldSendBatchInOneCallAndReportFailedMessages() throws Exception {
+        Session session = Session.getInstance(new Properties());
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(session));
+        JavaMailEmailProvider provider = new JavaMailEmailProvider(mailSender, "noreply@jobhub.com", Optional.empty(), 10,
+            Optional.empty(), Optional.empty(), new StandardEnvironment());
+        doAnswer(invocation -> {
+            MimeMessage rejected = invocation.getArgument(1);
+            throw new MailSendException(Map.of(rejected, new MessagingException("Mailbox unavailable")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        List<SendResult> results = provider.sendBatch(List.of(
+            new EmailMessage("ann@example.com", "Subject", "Body", "ann"),
+            new EmailMessage("bob@example.com", "Subject", "Body", "bob"))).join();
+        provider.shutdown();
+
+        verify(mailSender).send(any(MimeMessage[].class));
+        assertThat(results.get(0).isSuccess()).isTrue();
+        assertThat(results.get(1).errorMessage()).isEqualTo("Mailbox unavailable");
+    }
+}
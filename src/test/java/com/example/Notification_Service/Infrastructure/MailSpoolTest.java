@@ -0,0 +1,124 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Domain.EmailMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailSpoolTest {
+
+    private static final int SEGMENT_BYTES = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackEmailsInOrderUntilCommitted() throws Exception {
+        try (MailSpool spool = new MailSpool(directory, SEGMENT_BYTES, 4)) {
+            spool.append(message(0));
+            spool.append(message(1));
+
+            MailSpool.Entry first = spool.peek().orElseThrow();
+            assertThat(spool.peek()).contains(first);
+            spool.commit(first);
+
+            assertThat(spool.peek().orElseThrow().message()).isEqualTo(message(1));
+        }
+    }
+
+    @Test
+    void shouldKeepUncommittedEmailsAcrossRestarts() throws Exception {
+        try (MailSpool spool = new MailSpool(directory, SEGMENT_BYTES, 4)) {
+            for (int i = 0; i < 3; i++) {
+                spool.append(message(i));
+            }
+            spool.commit(spool.peek().orElseThrow());
+        }
+
+        try (MailSpool spool = new MailSpool(directory, SEGMENT_BYTES, 4)) {
+            assertThat(drain(spool)).containsExactly(message(1), message(2));
+            spool.append(message(3));
+            assertThat(drain(spool)).containsExactly(message(3));
+        }
+    }
+
+    @Test
+    void shouldKeepTheOriginatingEvent() throws Exception {
+        EmailMessage stamped = message(0).withEvent("UserRegistered", Instant.parse("2026-01-05T10:15:30Z"));
+        try (MailSpool spool = new MailSpool(directory, SEGMENT_BYTES, 4)) {
+            spool.append(stamped);
+            spool.append(message(1));
+
+            assertThat(drain(spool)).containsExactly(stamped, message(1));
+        }
+    }
+
+    @Test
+    void shouldRollOverSegmentsAndDeleteThemOnceDrained() throws Exception {
+        try (MailSpool spool = new MailSpool(directory, SEGMENT_BYTES, 8)) {
+            for (int i = 0; i < 20; i++) {
+                spool.append(message(i));
+            }
+            assertThat(segmentFiles()).isGreaterThan(1);
+
+            List<EmailMessage> drained = drain(spool);
+
+            assertThat(drained).hasSize(20).startsWith(message(0)).endsWith(message(19));
+            assertThat(spool.isEmpty()).isTrue();
+            assertThat(segmentFiles()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldRejectAppendsOnceFull() throws Exception {
+        try (MailSpool spool = new MailSpool(directory, SEGMENT_BYTES, 2)) {
+            assertThatThrownBy(() -> {
+                for (int i = 0; i < 100; i++) {
+                    spool.append(message(i));
+                }
+            }).isInstanceOf(MailSpool.SpoolFullException.class);
+
+            // Draining frees the segments again
+            drain(spool);
+            spool.append(message(0));
+        }
+    }
+
+    @Test
+    void shouldRefuseADirectoryAlreadyInUse() throws Exception {
+        try (MailSpool ignored = new MailSpool(directory, SEGMENT_BYTES, 4)) {
+            assertThatThrownBy(() -> new MailSpool(directory, SEGMENT_BYTES, 4)).isInstanceOf(Exception.class);
+        }
+    }
+
+    private static List<EmailMessage> drain(MailSpool spool) throws IOException {
+        List<EmailMessage> drained = new ArrayList<>();
+        Optional<MailSpool.Entry> next;
+        while ((next = spool.peek()).isPresent()) {
+            drained.add(next.get().message());
+            spool.commit(next.get());
+        }
+        return drained;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).count();
+        }
+    }
+
+    private static EmailMessage message(int i) {
+        return new EmailMessage("user" + i + "@example.com", "Subject " + i, "<p>Body ü " + i + "</p>", "user" + i);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.Notification_Service.Infrastructure;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MicrometerNotificationMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MicrometerNotificationMetrics metrics =
+        new MicrometerNotificationMetrics(meterRegistry, List.of("UserRegistered=30s", " APPLICATION_SUBMITTED = 5m"));
+
+    @Test
+    void shouldCountDeliveriesLaterThanTheirEventTypesSlo() {
+        metrics.recordDelivered("UserRegistered", "sendgrid", Duration.ofSeconds(2).toNanos());
+        metrics.recordDelivered("UserRegistered", "sendgrid", Duration.ofSeconds(45).toNanos());
+        metrics.recordDelivered("APPLICATION_SUBMITTED", "javamail", Duration.ofSeconds(45).toNanos());
+        // No SLO configured for this type
+        metrics.recordDelivered("RESUME_VIEWED", "javamail", Duration.ofHours(2).toNanos());
+
+        assertThat(meterRegistry.get(MicrometerNotificationMetrics.SLO_BREACHES).counters()).hasSize(1);
+        assertThat(meterRegistry.get(MicrometerNotificationMetrics.SLO_BREACHES)
+            .tags("event", "UserRegistered", "provider", "sendgrid").counter().count()).isEqualTo(1);
+
+        Timer verification = meterRegistry.get(MicrometerNotificationMetrics.DELIVERY_LATENCY)
+            .tags("event", "UserRegistered", "provider", "sendgrid").timer();
+        assertThat(verification.count()).isEqualTo(2);
+        // The SLO is a bucket boundary of its own
+        assertThat(Arrays.stream(verification.takeSnapshot().histogramCounts())
+            .filter(bucket -> bucket.bucket() == Duration.ofSeconds(30).toNanos())
+            .mapToDouble(CountAtBucket::count))
+            .containsExactly(1.0);
+    }
+
+    @Test
+    void shouldTagMissingEventTypesAsUnknownAndClampClockSkew() {
+        metrics.recordAcked("user-events", null, -Duration.ofSeconds(1).toNanos());
+
+        Timer acked = meterRegistry.get(MicrometerNotificationMetrics.ACK_LATENCY)
+            .tags("topic", "user-events", "event", "unknown").timer();
+        assertThat(acked.count()).isEqualTo(1);
+        assertThat(acked.totalTime(TimeUnit.NANOSECONDS)).isZero();
+    }
+
+    @Test
+    void shouldRejectMalformedSlos() {
+        assertThatThrownBy(() -> new MicrometerNotificationMetrics(meterRegistry, List.of("UserRegistered:30s")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
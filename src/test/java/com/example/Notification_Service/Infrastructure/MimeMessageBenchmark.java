@@ -0,0 +1,85 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Domain.EmailMessage;
+import com.example.Notification_Service.Domain.EmailNotificationServiceImpl;
+import com.example.Notification_Service.Domain.VerificationEmailData;
+import jakarta.mail.MessagingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link JavaMailEmailProvider} send path against a local {@link SmtpStub}: building the
+ * MIME message, building and encoding it as it goes on the wire, and a full pooled send.
+ * Run with {@code ./mvnw -Pbenchmark test -Dbenchmark.include=MimeMessage}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class MimeMessageBenchmark {
+
+    private SmtpStub stub;
+    private SmtpTransportPool pool;
+    private JavaMailEmailProvider provider;
+    private EmailMessage emailMessage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stub = new SmtpStub(0);
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(stub.port());
+        pool = new SmtpTransportPool(mailSender.getSession(), "smtp", "localhost", stub.port(), null, null,
+            4, 1000, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        provider = new JavaMailEmailProvider(mailSender, "noreply@jobhub.com", Optional.empty(), 16,
+            Optional.of(pool), Optional.empty(), new StandardEnvironment());
+        emailMessage = new EmailNotificationServiceImpl().composeVerificationEmail(
+            new VerificationEmailData("John", "test@example.com", "2f1c7a9e-4b1d-4c7e-9d0a-5a8f3e6b2c11",
+                "http://localhost:3000", "JobHub", "https://jobhub.com/logo.png", "http://localhost:3000/support", 24),
+            "user123");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        provider.shutdown();
+        pool.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public Object build() throws MessagingException {
+        return provider.createMimeMessage(emailMessage);
+    }
+
+    @Benchmark
+    public void buildAndEncode() throws MessagingException, IOException {
+        provider.createMimeMessage(emailMessage).writeTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void send() {
+        provider.sendEmail(emailMessage);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Application.ports.DeliveryHistory;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MongoDeliveryHistoryTest {
+
+    @Mock
+    private MongoOperations mongoOperations;
+
+    @Test
+    void shouldFetchOneExtraRowAndReturnCursorOfLastItem() {
+        List<EmailSendLog> logs = logs(3);
+        when(mongoOperations.find(any(Query.class), eq(EmailSendLog.class))).thenReturn(logs);
+        MongoDeliveryHistory history = new MongoDeliveryHistory(Optional.of(mongoOperations));
+
+        DeliveryHistory.Page page = history.find(new DeliveryHistory.Filter("user1", null, null), null, 2);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).find(query.capture(), eq(EmailSendLog.class));
+        assertThat(query.getValue().getLimit()).isEqualTo(3);
+        assertThat(page.items()).hasSize(2);
+        MongoDeliveryHistory.Position next = MongoDeliveryHistory.Position.decode(page.nextCursor());
+        assertThat(next).isEqualTo(MongoDeliveryHistory.Position.of(logs.get(1)));
+    }
+
+    @Test
+    void shouldContinueAfterCursorAndEndWithoutOne() {
+        List<EmailSendLog> logs = logs(1);
+        when(mongoOperations.find(any(Query.class), eq(EmailSendLog.class))).thenReturn(logs);
+        MongoDeliveryHistory history = new MongoDeliveryHistory(Optional.of(mongoOperations));
+        String cursor = new MongoDeliveryHistory.Position(LocalDateTime.of(2026, 1, 1, 12, 0), new ObjectId()).encode();
+
+        DeliveryHistory.Page page = history.find(new DeliveryHistory.Filter(null, "a@example.com", null), cursor, 2);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).find(query.capture(), eq(EmailSendLog.class));
+        List<?> conditions = query.getValue().getQueryObject().get("$and", List.class);
+        assertThat(conditions).hasSize(2);
+        assertThat(((Document) conditions.get(0)).keySet()).containsExactly("email");
+        assertThat(((Document) conditions.get(1)).keySet()).containsExactly("$or");
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        MongoDeliveryHistory history = new MongoDeliveryHistory(Optional.of(mongoOperations));
+
+        assertThatThrownBy(() -> history.find(new DeliveryHistory.Filter("user1", null, null), "not-a-cursor", 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<EmailSendLog> logs(int count) {
+        List<EmailSendLog> logs = new ArrayList<>();
+        LocalDateTime newest = LocalDateTime.of(2026, 1, 1, 12, 0);
+        for (int i = 0; i < count; i++) {
+            logs.add(new EmailSendLog(new ObjectId().toHexString(), "user1", "a@example.com", null, true, null,
+                newest.minusMinutes(i)));
+        }
+        return logs;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.Notification_Service.Infrastructure;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryBudgetTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MicrometerNotificationMetrics metrics = new MicrometerNotificationMetrics(meterRegistry, List.of());
+
+    @Test
+    void shouldAllowRetriesInProportionToSuccesses() {
+        RetryBudget budget = new RetryBudget(0.5, 0, 2, metrics);
+
+        assertThat(budget.tryAcquire(RetryBudget.KAFKA)).isTrue();
+        assertThat(budget.tryAcquire(RetryBudget.KAFKA)).isTrue();
+        assertThat(budget.tryAcquire(RetryBudget.KAFKA)).isFalse();
+
+        budget.recordSuccess();
+        assertThat(budget.tryAcquire(RetryBudget.KAFKA)).isFalse();
+        budget.recordSuccess();
+        assertThat(budget.tryAcquire(RetryBudget.KAFKA)).isTrue();
+
+        // Saved-up retries are capped
+        for (int i = 0; i < 100; i++) {
+            budget.recordSuccess();
+        }
+        assertThat(budget.available()).isEqualTo(2.0);
+        assertThat(meterRegistry.get(MicrometerNotificationMetrics.RETRY_BUDGET_AVAILABLE).gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get(MicrometerNotificationMetrics.RETRY_BUDGET_REQUESTS)
+            .tags("layer", "kafka", "outcome", "exhausted").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRefillTheReserveOverTime() throws InterruptedException {
+        RetryBudget budget = new RetryBudget(0, 100, 1, metrics);
+        assertThat(budget.tryAcquire(RetryBudget.FAILOVER)).isTrue();
+
+        Thread.sleep(50);
+
+        assertThat(budget.tryAcquire(RetryBudget.FAILOVER)).isTrue();
+    }
+
+    @Test
+    void shouldStopProviderRetriesWhenTheBudgetIsSpent() {
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(new BudgetedRetryPolicy(new SimpleRetryPolicy(3), new RetryBudget(0, 0, 1, metrics)));
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retryTemplate.execute(context -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("SMTP is down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // One retry paid for, the second refused
+        assertThat(attempts).hasValue(2);
+        assertThat(meterRegistry.get(MicrometerNotificationMetrics.RETRY_BUDGET_REQUESTS)
+            .tags("layer", "provider", "outcome", "granted").counter().count()).isEqualTo(1);
+    }
+}
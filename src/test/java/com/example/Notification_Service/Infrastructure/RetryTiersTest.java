@@ -0,0 +1,42 @@
+package com.example.Notification_Service.Infrastructure;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryTiersTest {
+
+    private final RetryTiers tiers = new RetryTiers(List.of("10s", "2m"));
+
+    @Test
+    void shouldWalkFromMainTopicThroughTiersToDlt() {
+        assertThat(tiers.nextTopic("application-events")).isEqualTo("application-events-retry-10s");
+        assertThat(tiers.nextTopic("application-events-retry-10s")).isEqualTo("application-events-retry-2m");
+        assertThat(tiers.nextTopic("application-events-retry-2m")).isEqualTo("application-events.DLT");
+        assertThat(tiers.baseTopic("user-events-retry-2m")).isEqualTo("user-events");
+    }
+
+    @Test
+    void shouldStampDueTimeOnlyForRetryTiers() {
+        Instant now = Instant.parse("2026-01-15T10:00:00Z");
+
+        assertThat(tiers.dueAt("user-events-retry-2m", now)).isEqualTo(now.plus(Duration.ofMinutes(2)));
+        assertThat(tiers.dueAt("user-events.DLT", now)).isNull();
+    }
+
+    @Test
+    void shouldReportRemainingWaitFromHeader() {
+        Instant now = Instant.parse("2026-01-15T10:00:00Z");
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(RetryTiers.DUE_AT_HEADER, RetryTiers.encodeDueAt(now.plusSeconds(10)));
+
+        assertThat(RetryTiers.remaining(headers, now)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(RetryTiers.remaining(headers, now.plusSeconds(11))).isEqualTo(Duration.ZERO);
+        assertThat(RetryTiers.remaining(new RecordHeaders(), now)).isEqualTo(Duration.ZERO);
+    }
+}
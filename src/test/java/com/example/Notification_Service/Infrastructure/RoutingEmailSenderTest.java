@@ -0,0 +1,240 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Domain.EmailMessage;
+import com.example.Notification_Service.Domain.SendResult;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoutingEmailSenderTest {
+
+    private final CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+        .slidingWindowSize(4)
+        .minimumNumberOfCalls(4)
+        .waitDurationInOpenState(Duration.ofMinutes(1))
+        .build());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MicrometerNotificationMetrics metrics = new MicrometerNotificationMetrics(meterRegistry, List.of());
+    private final RetryBudget retryBudget = new RetryBudget(0.1, 1, 100, metrics);
+
+    @Test
+    void shouldFailOverToNextProviderWhenOneFails() {
+        StubProvider failing = new StubProvider("failing", true);
+        StubProvider healthy = new StubProvider("healthy", false);
+        RoutingEmailSender router = new RoutingEmailSender(List.of(failing, healthy), registry, Optional.empty(), retryBudget, metrics);
+
+        for (int i = 0; i < 20; i++) {
+            router.sendEmail(message(i));
+        }
+
+        assertThat(healthy.sent).hasSize(20);
+        // Its error rate steers traffic away, and after four failures its breaker opens for good
+        assertThat(failing.attempts).isLessThanOrEqualTo(4);
+        assertThat(meterRegistry.get(MicrometerNotificationMetrics.SEND).tags("provider", "healthy", "outcome", "success")
+            .timer().count()).isEqualTo(20);
+        assertThat(meterRegistry.get(MicrometerNotificationMetrics.SEND).tags("provider", "failing", "outcome", "failure")
+            .timer().count()).isEqualTo(failing.attempts);
+    }
+
+    @Test
+    void shouldFailOverAsyncAndInBatches() {
+        StubProvider failing = new StubProvider("failing", true);
+        StubProvider healthy = new StubProvider("healthy", false);
+        RoutingEmailSender router = new RoutingEmailSender(List.of(failing, healthy), registry, Optional.empty(), retryBudget, metrics);
+
+        SendResult single = router.sendEmailAsync(message(0)).join();
+        List<SendResult> batch = router.sendBatch(List.of(message(1), message(2))).join();
+
+        assertThat(single.isSuccess()).isTrue();
+        assertThat(batch).allMatch(SendResult::isSuccess);
+        assertThat(healthy.sent).containsExactlyInAnyOrder("user0@example.com", "user1@example.com", "user2@example.com");
+    }
+
+    @Test
+    void shouldCompleteAnEmptyBatchWithoutCallingAProvider() {
+        StubProvider healthy = new StubProvider("healthy", false);
+        RoutingEmailSender router = new RoutingEmailSender(List.of(healthy), registry, Optional.empty(), retryBudget, metrics);
+
+        assertThat(router.sendBatch(List.of()).join()).isEmpty();
+        assertThat(healthy.attempts).isZero();
+        assertThat(registry.circuitBreaker("healthy").getMetrics().getNumberOfBufferedCalls()).isZero();
+    }
+
+    @Test
+    void shouldCountOnlyRealHandOffsAsFailovers() {
+        StubProvider failing = new StubProvider("failing", true);
+        StubProvider healthy = new StubProvider("healthy", false);
+        registry.circuitBreaker("healthy").transitionToOpenState();
+        RoutingEmailSender router = new RoutingEmailSender(List.of(failing, healthy), registry, Optional.empty(), retryBudget, metrics);
+
+        assertThatThrownBy(() -> router.sendEmail(message(0))).isInstanceOf(RuntimeException.class);
+        assertThat(router.sendEmailAsync(message(1))).failsWithin(Duration.ofSeconds(5));
+        assertThat(meterRegistry.counter(MicrometerNotificationMetrics.FALLBACKS, "type", "failover").count()).isZero();
+
+        registry.circuitBreaker("healthy").transitionToClosedState();
+        router.sendEmail(message(2));
+        // Failing is drawn first or not at all; only a failure handed to healthy is a failover
+        assertThat(meterRegistry.counter(MicrometerNotificationMetrics.FALLBACKS, "type", "failover").count())
+            .isEqualTo(failing.attempts - 2);
+    }
+
+    @Test
+    void shouldSkipProviderWithOpenBreaker() {
+        StubProvider open = new StubProvider("open", false);
+        StubProvider healthy = new StubProvider("healthy", false);
+        registry.circuitBreaker("open").transitionToOpenState();
+        RoutingEmailSender router = new RoutingEmailSender(List.of(open, healthy), registry, Optional.empty(), retryBudget, metrics);
+
+        for (int i = 0; i < 20; i++) {
+            router.sendEmail(message(i));
+        }
+
+        assertThat(open.attempts).isZero();
+        assertThat(registry.circuitBreaker("open").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(healthy.sent).hasSize(20);
+    }
+
+    @Test
+    void shouldRejectWhenEveryBreakerIsOpen() {
+        StubProvider only = new StubProvider("only", false);
+        registry.circuitBreaker("only").transitionToOpenState();
+        RoutingEmailSender router = new RoutingEmailSender(List.of(only), registry, Optional.empty(), retryBudget, metrics);
+
+        assertThatThrownBy(() -> router.sendEmail(message(0)))
+            .isInstanceOf(RoutingEmailSender.NoProviderAvailableException.class);
+        assertThat(only.attempts).isZero();
+    }
+
+    @Test
+    void shouldSpoolWhenEveryBreakerIsOpenAndReplayOnceClosed(@TempDir Path spoolDir) throws Exception {
+        StubProvider only = new StubProvider("only", false);
+        registry.circuitBreaker("only").transitionToOpenState();
+        try (MailSpool spool = new MailSpool(spoolDir, 64 * 1024, 4)) {
+            RoutingEmailSender router = new RoutingEmailSender(List.of(only), registry, Optional.of(spool), retryBudget, metrics);
+
+            router.sendEmail(message(0));
+            router.sendEmailAsync(message(1)).join();
+
+            assertThat(only.attempts).isZero();
+            assertThat(spool.isEmpty()).isFalse();
+
+            SpoolDrainer drainer = new SpoolDrainer(spool, new MailSpool(spoolDir.resolve("retry"), 64 * 1024, 4), router,
+                1000, Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofMillis(100), metrics);
+            drainer.start();
+            try {
+                registry.circuitBreaker("only").transitionToClosedState();
+                long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+                while (!spool.isEmpty() && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+            } finally {
+                drainer.close();
+            }
+            assertThat(only.sent).containsExactly("user0@example.com", "user1@example.com");
+            assertThat(meterRegistry.get(MicrometerNotificationMetrics.FALLBACKS).tag("type", "spool").counter().count())
+                .isEqualTo(2);
+            assertThat(meterRegistry.get(MicrometerNotificationMetrics.CIRCUIT_TRANSITIONS)
+                .tags("name", "only", "from", "OPEN", "to", "CLOSED").counter().count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldStopFailingOverOnceTheRetryBudgetIsSpent() {
+        StubProvider first = new StubProvider("first", true);
+        StubProvider second = new StubProvider("second", true);
+        RetryBudget oneRetry = new RetryBudget(0, 0, 1, metrics);
+        RoutingEmailSender router = new RoutingEmailSender(List.of(first, second), registry, Optional.empty(), oneRetry, metrics);
+
+        assertThatThrownBy(() -> router.sendEmail(message(0))).hasMessageContaining("is down");
+        assertThatThrownBy(() -> router.deliver(message(1)))
+            .isInstanceOf(RoutingEmailSender.RetryBudgetExhaustedException.class);
+
+        // Both providers for the first email, then only the first choice for the second
+        assertThat(first.attempts + second.attempts).isEqualTo(3);
+        assertThat(meterRegistry.get(MicrometerNotificationMetrics.RETRY_BUDGET_REQUESTS)
+            .tags("layer", "failover", "outcome", "exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSpoolOnceTheRetryBudgetIsSpent(@TempDir Path spoolDir) throws Exception {
+        StubProvider first = new StubProvider("first", true);
+        StubProvider second = new StubProvider("second", true);
+        try (MailSpool spool = new MailSpool(spoolDir, 64 * 1024, 4)) {
+            RoutingEmailSender router = new RoutingEmailSender(List.of(first, second), registry,
+                Optional.of(spool), new RetryBudget(0, 0, 0, metrics), metrics);
+
+            router.sendEmail(message(0));
+            SendResult async = router.sendEmailAsync(message(1)).join();
+
+            assertThat(async.isSuccess()).isTrue();
+            assertThat(first.attempts + second.attempts).isEqualTo(2);
+            assertThat(spool.isEmpty()).isFalse();
+        }
+    }
+
+    @Test
+    void shouldFavourTheFasterProvider() {
+        StubProvider slow = new StubProvider("slow", false);
+        StubProvider fast = new StubProvider("fast", false);
+        RoutingEmailSender router = new RoutingEmailSender(List.of(slow, fast), registry, Optional.empty(), retryBudget, metrics);
+        for (RoutingEmailSender.Route route : router.candidates()) {
+            long latency = route.provider() == slow ? Duration.ofMillis(400).toNanos() : Duration.ofMillis(20).toNanos();
+            for (int i = 0; i < ProviderHealth.WINDOW; i++) {
+                route.health().record(latency, true);
+            }
+        }
+
+        int fastFirst = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (router.candidates().get(0).provider() == fast) {
+                fastFirst++;
+            }
+        }
+
+        // Weights are about 1/401 against 1/21, so roughly 95% of emails go to the fast provider
+        assertThat(fastFirst).isBetween(900, 990);
+    }
+
+    private static EmailMessage message(int i) {
+        return new EmailMessage("user" + i + "@example.com", "Subject", "Body", "user" + i);
+    }
+
+    private static class StubProvider implements EmailProvider {
+
+        private final String name;
+        private final boolean failing;
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private volatile int attempts;
+
+        private StubProvider(String name, boolean failing) {
+            this.name = name;
+            this.failing = failing;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void sendEmail(EmailMessage emailMessage) {
+            attempts++;
+            if (failing) {
+                throw new RuntimeException(name + " is down");
+            }
+            sent.add(emailMessage.to());
+        }
+    }
+}
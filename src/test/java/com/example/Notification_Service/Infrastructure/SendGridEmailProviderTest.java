@@ -0,0 +1,208 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Domain.EmailMessage;
+import com.example.Notification_Service.Domain.EmailNotificationServiceImpl;
+import com.example.Notification_Service.Domain.SendResult;
+import com.example.Notification_Service.Domain.VerificationEmailData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SendGridEmailProviderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EmailNotificationServiceImpl emailNotificationService = new EmailNotificationServiceImpl();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(202);
+    // Statuses and bodies for the next requests, ahead of the default status
+    private final Queue<Integer> nextStatuses = new ConcurrentLinkedQueue<>();
+    private final Queue<String> nextBodies = new ConcurrentLinkedQueue<>();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private HttpServer sendGridStub;
+    private SendGridEmailProvider provider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sendGridStub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        sendGridStub.createContext("/v3/mail/send", exchange -> {
+            requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("X-Message-Id", "msg-" + requests.size());
+            Integer next = nextStatuses.poll();
+            byte[] body = Optional.ofNullable(nextBodies.poll()).orElse("").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(next != null ? next : status.get(), body.length > 0 ? body.length : -1);
+            if (body.length > 0) {
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        sendGridStub.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (provider != null) {
+            provider.shutdown();
+        }
+        sendGridStub.stop(0);
+    }
+
+    @Test
+    void shouldSendSameTemplateEmailsAsPersonalizationsOfOneRequest() throws Exception {
+        provider = provider(true);
+
+        List<CompletableFuture<Void>> sends = List.of("ann", "bob", "cy").stream()
+            .map(name -> CompletableFuture.runAsync(() -> provider.sendEmail(verification(name))))
+            .toList();
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+
+        assertThat(requests).hasSize(1);
+        JsonNode request = objectMapper.readTree(requests.get(0));
+        assertThat(request.path("content").get(0).path("value").asText()).contains(SendGridBatcher.marker(0));
+        JsonNode personalizations = request.path("personalizations");
+        assertThat(personalizations).hasSize(3);
+        for (JsonNode personalization : personalizations) {
+            String to = personalization.path("to").get(0).path("email").asText();
+            String name = to.substring(0, to.indexOf('@'));
+            // Slot 4 of the verification template is the first name
+            assertThat(personalization.path("substitutions").path(SendGridBatcher.marker(4)).asText()).isEqualTo(name);
+        }
+    }
+
+    @Test
+    void shouldSendOneRequestPerEmailWithoutBatching() throws Exception {
+        provider = provider(false);
+
+        provider.sendEmail(verification("ann"));
+
+        assertThat(requests).hasSize(1);
+        JsonNode request = objectMapper.readTree(requests.get(0));
+        assertThat(request.path("content").get(0).path("type").asText()).isEqualTo("text/html");
+        assertThat(request.path("content").get(0).path("value").asText()).contains("Hi <strong>ann</strong>");
+    }
+
+    @Test
+    void shouldFailOnErrorStatus() {
+        provider = provider(false);
+        status.set(401);
+
+        assertThatThrownBy(() -> provider.sendEmail(verification("ann")))
+            .isInstanceOf(RuntimeException.class)
+            .hasCauseInstanceOf(SendGridClient.SendGridException.class);
+    }
+
+    @Test
+    void shouldSendBatchAsOneRequestWithoutWaitingForAWindow() {
+        provider = provider(false);
+
+        List<SendResult> results = provider.sendBatch(List.of(verification("ann"), verification("bob"))).join();
+
+        assertThat(requests).hasSize(1);
+        assertThat(results).extracting(SendResult::messageId).containsExactly("msg-1", "msg-1");
+        assertThat(results).allMatch(SendResult::isSuccess);
+    }
+
+    @Test
+    void shouldReportFailuresPerEmailInBatch() {
+        provider = provider(false);
+        status.set(500);
+
+        List<SendResult> results = provider.sendBatch(List.of(verification("ann"))).join();
+
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.isSuccess()).isFalse();
+            assertThat(result.error()).isInstanceOf(SendGridClient.SendGridException.class);
+        });
+    }
+
+    @Test
+    void shouldFailOnlyTheRejectedRecipientsOfABatch() throws Exception {
+        provider = provider(false);
+        nextStatuses.add(400);
+        nextBodies.add("{\"errors\":[{\"message\":\"Does not contain a valid address.\","
+            + "\"field\":\"personalizations.1.to.0.email\"}]}");
+
+        List<SendResult> results = provider.sendBatch(
+            List.of(verification("ann"), verification("bob"), verification("cy"))).join();
+
+        assertThat(results).extracting(SendResult::isSuccess).containsExactly(true, false, true);
+        assertThat(requests).hasSize(2);
+        JsonNode resent = objectMapper.readTree(requests.get(1)).path("personalizations");
+        assertThat(resent).extracting(p -> p.path("to").get(0).path("email").asText())
+            .containsExactly("ann@example.com", "cy@example.com");
+    }
+
+    @Test
+    void shouldSendOneByOneWhenTheRejectionNamesNoRecipient() {
+        provider = provider(false);
+        nextStatuses.add(400);
+        nextBodies.add("{\"errors\":[{\"message\":\"Bad request\"}]}");
+
+        List<SendResult> results = provider.sendBatch(List.of(verification("ann"), verification("bob"))).join();
+
+        assertThat(results).allMatch(SendResult::isSuccess);
+        assertThat(requests).hasSize(3);
+    }
+
+    @Test
+    void shouldQueueAsyncSendsBeyondTheInFlightCapWithoutBlockingTheCaller() {
+        provider = new SendGridEmailProvider("test-key", Optional.empty(), 1,
+            "http://localhost:" + sendGridStub.getAddress().getPort(), false, 1000, Duration.ofMillis(300));
+        release = new CountDownLatch(1);
+
+        CompletableFuture<SendResult> first = provider.sendEmailAsync(verification("ann"));
+        CompletableFuture<SendResult> second = provider.sendEmailAsync(verification("bob"));
+
+        assertThat(first).isNotDone();
+        assertThat(second).isNotDone();
+        release.countDown();
+        assertThat(first.join().isSuccess()).isTrue();
+        assertThat(second.join().isSuccess()).isTrue();
+    }
+
+    @Test
+    void shouldCompleteAsyncSendWithMessageId() {
+        provider = provider(false);
+
+        SendResult result = provider.sendEmailAsync(verification("ann")).join();
+
+        assertThat(result.messageId()).isEqualTo("msg-1");
+        assertThat(result.latency()).isPositive();
+    }
+
+    private SendGridEmailProvider provider(boolean batchEnabled) {
+        String baseUrl = "http://localhost:" + sendGridStub.getAddress().getPort();
+        return new SendGridEmailProvider("test-key", Optional.empty(), 10, baseUrl,
+            batchEnabled, 1000, Duration.ofMillis(300));
+    }
+
+    private EmailMessage verification(String name) {
+        return emailNotificationService.composeVerificationEmail(new VerificationEmailData(
+            name, name + "@example.com", "token-" + name, "http://localhost:3000",
+            "JobHub", "https://jobhub.com/logo.png", "http://localhost:3000/support", 24), "user-" + name);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.Notification_Service.Infrastructure;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SmtpBatchSenderTest {
+
+    private final Session session = Session.getInstance(new Properties());
+    private final SmtpStub stub = new SmtpStub(0);
+    private final SmtpTransportPool pool = new SmtpTransportPool(session, "smtp", "localhost", stub.port(), null, null,
+        1, 1000, Duration.ofMinutes(5), Duration.ofSeconds(30));
+    private final SmtpBatchSender batchSender = new SmtpBatchSender(pool, 50, Duration.ofMillis(200), 1);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        batchSender.close();
+        pool.close();
+        stub.close();
+    }
+
+    @Test
+    void shouldSendBurstOverOneSessionAndReportEachResult() throws Exception {
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(batchSender.submit(message(i == 7 ? "reject@example.com" : "user" + i + "@example.com")));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            if (i == 7) {
+                assertThatThrownBy(results.get(i)::join).hasCauseInstanceOf(SendFailedException.class);
+            } else {
+                results.get(i).join();
+            }
+        }
+        assertThat(stub.messages()).isEqualTo(19);
+        assertThat(stub.connections()).isEqualTo(1);
+    }
+
+    private MimeMessage message(String to) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("noreply@jobhub.com"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(to));
+        message.setSubject("Batch");
+        message.setText("Hello");
+        return message;
+    }
+}
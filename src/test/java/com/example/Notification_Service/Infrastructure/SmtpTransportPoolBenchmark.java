@@ -0,0 +1,93 @@
+package com.example.Notification_Service.Infrastructure;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages per second against a local {@link SmtpStub}, comparing a new connection per email
+ * ({@code JavaMailSenderImpl.send}, the old path) with the {@link SmtpTransportPool}, used
+ * directly or through the {@link SmtpBatchSender}.
+ * {@code connectLatencyMillis} stands in for the handshake, STARTTLS and AUTH of a remote server.
+ * Run with {@code ./mvnw -Pbenchmark test -Dbenchmark.include=SmtpTransportPool}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(16)
+@Fork(1)
+public class SmtpTransportPoolBenchmark {
+
+    @Param({"0", "25"})
+    public long connectLatencyMillis;
+
+    private SmtpStub stub;
+    private JavaMailSenderImpl mailSender;
+    private SmtpTransportPool pool;
+    private SmtpBatchSender batchSender;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stub = new SmtpStub(connectLatencyMillis);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(stub.port());
+        pool = new SmtpTransportPool(mailSender.getSession(), "smtp", "localhost", stub.port(), null, null,
+            4, 1000, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        batchSender = new SmtpBatchSender(pool, 50, Duration.ofMillis(2), 4);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        batchSender.close();
+        pool.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public void connectionPerMessage() throws MessagingException {
+        mailSender.send(message(mailSender.getSession()));
+    }
+
+    @Benchmark
+    public void pooledConnections() throws MessagingException {
+        pool.send(message(mailSender.getSession()));
+    }
+
+    @Benchmark
+    public void microBatched() throws MessagingException {
+        batchSender.submit(message(mailSender.getSession())).join();
+    }
+
+    private static MimeMessage message(Session session) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("noreply@jobhub.com"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress("user@example.com"));
+        message.setSubject("Benchmark");
+        message.setText("Hello from the benchmark");
+        return message;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.Notification_Service.Infrastructure;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SmtpTransportPoolTest {
+
+    private final Session session = Session.getInstance(new Properties());
+    private final SmtpStub stub = new SmtpStub(0);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        stub.close();
+    }
+
+    @Test
+    void shouldSendManyMessagesPerConnection() throws Exception {
+        try (SmtpTransportPool pool = pool(2, 100)) {
+            for (int i = 0; i < 20; i++) {
+                pool.send(message(i));
+            }
+        }
+
+        assertThat(stub.messages()).isEqualTo(20);
+        assertThat(stub.connections()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRecycleConnectionAfterMaxMessages() throws Exception {
+        try (SmtpTransportPool pool = pool(1, 5)) {
+            for (int i = 0; i < 12; i++) {
+                pool.send(message(i));
+            }
+        }
+
+        assertThat(stub.messages()).isEqualTo(12);
+        assertThat(stub.connections()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNeverOpenMoreThanMaxConnections() throws Exception {
+        ExecutorService senders = Executors.newFixedThreadPool(8);
+        try (SmtpTransportPool pool = pool(3, 1000)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 80; i++) {
+                int n = i;
+                results.add(senders.submit(() -> {
+                    pool.send(message(n));
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            senders.shutdown();
+        }
+
+        assertThat(stub.messages()).isEqualTo(80);
+        assertThat(stub.connections()).isBetween(1, 3);
+    }
+
+    private SmtpTransportPool pool(int maxConnections, int maxMessagesPerConnection) {
+        return new SmtpTransportPool(session, "smtp", "localhost", stub.port(), null, null,
+            maxConnections, maxMessagesPerConnection, Duration.ofMinutes(5), Duration.ofSeconds(30));
+    }
+
+    private MimeMessage message(int n) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("noreply@jobhub.com"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress("user" + n + "@example.com"));
+        message.setSubject("Message " + n);
+        message.setText("Hello " + n);
+        return message;
+    }
+}
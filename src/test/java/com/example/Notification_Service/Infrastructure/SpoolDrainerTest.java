@@ -0,0 +1,113 @@
+package com.example.Notification_Service.Infrastructure;
+
+import com.example.Notification_Service.Domain.EmailMessage;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpoolDrainerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MicrometerNotificationMetrics metrics = new MicrometerNotificationMetrics(meterRegistry, List.of());
+
+    @Test
+    void shouldRetryAFailingEmailLaterWithoutHoldingUpTheOnesBehindIt(@TempDir Path spoolDir) throws Exception {
+        PoisonProvider provider = new PoisonProvider("poison@example.com", 3, () -> new RuntimeException("timed out"));
+
+        drain(spoolDir, provider, "poison@example.com", "user1@example.com", "user2@example.com");
+
+        assertThat(provider.attempts.get("poison@example.com")).isEqualTo(4);
+        assertThat(provider.sent).containsExactly("user1@example.com", "user2@example.com", "poison@example.com");
+        assertThat(fallbacks("spool_retry")).isEqualTo(3);
+        assertThat(fallbacks("spool_dropped")).isZero();
+    }
+
+    @Test
+    void shouldDropARejectedEmailWithoutRetrying(@TempDir Path spoolDir) throws Exception {
+        PoisonProvider provider = new PoisonProvider("poison@example.com", Integer.MAX_VALUE,
+            () -> new SendGridClient.SendGridException(400, "{\"errors\":[{\"field\":\"personalizations.0.to\"}]}"));
+
+        drain(spoolDir, provider, "poison@example.com", "user1@example.com");
+
+        assertThat(provider.attempts.get("poison@example.com")).isEqualTo(1);
+        assertThat(provider.sent).containsExactly("user1@example.com");
+        assertThat(fallbacks("spool_dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDoubleTheBackOffUpToTheMaximum() {
+        SpoolDrainer drainer = new SpoolDrainer(null, null, null, 1, Duration.ofSeconds(1),
+            Duration.ofSeconds(10), Duration.ofMinutes(1), metrics);
+
+        assertThat(drainer.backOff(1)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(drainer.backOff(3)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(drainer.backOff(4)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(drainer.backOff(100)).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    private void drain(Path spoolDir, EmailProvider provider, String... recipients) throws Exception {
+        RoutingEmailSender router = new RoutingEmailSender(List.of(provider), CircuitBreakerRegistry.ofDefaults(),
+            Optional.empty(), new RetryBudget(0.1, 1, 100, metrics), metrics);
+        try (MailSpool spool = new MailSpool(spoolDir, 64 * 1024, 4)) {
+            for (String to : recipients) {
+                spool.append(new EmailMessage(to, "Subject", "Body", to));
+            }
+            MailSpool retrySpool = new MailSpool(spoolDir.resolve("retry"), 64 * 1024, 4);
+            try (SpoolDrainer drainer = new SpoolDrainer(spool, retrySpool, router, 1000, Duration.ofMillis(10),
+                    Duration.ofMillis(10), Duration.ofMillis(40), metrics)) {
+                drainer.start();
+                long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+                while ((!spool.isEmpty() || !retrySpool.isEmpty()) && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertThat(spool.isEmpty()).isTrue();
+                assertThat(retrySpool.isEmpty()).isTrue();
+            }
+        }
+    }
+
+    private double fallbacks(String type) {
+        return meterRegistry.counter(MicrometerNotificationMetrics.FALLBACKS, "type", type).count();
+    }
+
+    private static class PoisonProvider implements EmailProvider {
+
+        private final String poison;
+        private final int failures;
+        private final Supplier<RuntimeException> failure;
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+
+        private PoisonProvider(String poison, int failures, Supplier<RuntimeException> failure) {
+            this.poison = poison;
+            this.failures = failures;
+            this.failure = failure;
+        }
+
+        @Override
+        public String name() {
+            return "poison";
+        }
+
+        @Override
+        public void sendEmail(EmailMessage emailMessage) {
+            int attempt = attempts.merge(emailMessage.to(), 1, Integer::sum);
+            if (poison.equals(emailMessage.to()) && attempt <= failures) {
+                throw failure.get();
+            }
+            sent.add(emailMessage.to());
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.Notification_Service;
+
+import com.example.Notification_Service.Domain.ApplicationEventData;
+import com.example.Notification_Service.Domain.UserRegisteredEvent;
+import com.example.Notification_Service.Infrastructure.SmtpStub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * End-to-end load test: boots the whole service against an embedded Kafka broker and an in-process
+ * {@link SmtpStub}, replays synthetic {@code user-events} and {@code application-events} at fixed rates
+ * and reports sustained throughput, end-to-end latency percentiles, consumer lag and heap/GC figures.
+ * Skipped unless {@code -Dloadtest=true}:
+ * <pre>
+ * ./mvnw test -Dtest=NotificationLoadTest -Dloadtest=true -Dloadtest.user-events.rate=200 -Dloadtest.duration=2m
+ * </pre>
+ * Send logs and the idempotency collection go to {@code loadtest.mongo.uri} when set (e.g. a local
+ * {@code mongod}); without it Mongo is left out and the ledger runs on its cache alone. Any service setting
+ * can be passed as a system property too, e.g. {@code -Dnotification.kafka.listener-mode=pipeline}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class NotificationLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationLoadTest.class);
+    private static final String USER_EVENTS = "user-events";
+    private static final String APPLICATION_EVENTS = "application-events";
+    private static final String GROUP_ID = "notification-service";
+    private static final String DELIVERY_LATENCY = "notification.delivery.latency";
+    private static final String ACK_LATENCY = "notification.ack.latency";
+    // Mongo is left out entirely unless a URI is given, so nothing reaches for the configured cluster
+    private static final String MONGO_AUTO_CONFIGURATIONS = String.join(",",
+        "org.springframework.boot.mongodb.autoconfigure.MongoAutoConfiguration",
+        "org.springframework.boot.mongodb.autoconfigure.health.MongoHealthContributorAutoConfiguration",
+        "org.springframework.boot.mongodb.autoconfigure.metrics.MongoMetricsAutoConfiguration",
+        "org.springframework.boot.data.mongodb.autoconfigure.DataMongoAutoConfiguration",
+        "org.springframework.boot.data.mongodb.autoconfigure.DataMongoRepositoriesAutoConfiguration");
+
+    private static final double USER_EVENTS_RATE = Double.parseDouble(setting("loadtest.user-events.rate", "100"));
+    private static final double APPLICATION_EVENTS_RATE = Double.parseDouble(setting("loadtest.application-events.rate", "100"));
+    private static final Duration DURATION = duration("loadtest.duration", "60s");
+    private static final Duration DRAIN_TIMEOUT = duration("loadtest.drain-timeout", "2m");
+    private static final int PARTITIONS = Integer.parseInt(setting("loadtest.partitions", "6"));
+    private static final Duration SMTP_LATENCY_MEDIAN = duration("loadtest.smtp.latency.median", "20ms");
+    private static final Duration SMTP_LATENCY_P99 = duration("loadtest.smtp.latency.p99", "200ms");
+    private static final String MONGO_URI = setting("loadtest.mongo.uri", "");
+    private static final Path REPORT = Path.of(setting("loadtest.report", "target/loadtest-report.txt"));
+
+    private static EmbeddedKafkaKraftBroker broker;
+    private static SmtpStub smtp;
+    private static Path spoolDirectory;
+    private static ConfigurableApplicationContext context;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @BeforeAll
+    static void startService() throws IOException {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, USER_EVENTS, APPLICATION_EVENTS);
+        broker.afterPropertiesSet();
+        smtp = new SmtpStub(0, new LogNormalLatency(SMTP_LATENCY_MEDIAN, SMTP_LATENCY_P99));
+        spoolDirectory = Files.createTempDirectory("notification-loadtest-spool");
+
+        SpringApplication application = new SpringApplication(NotificationServiceApplication.class);
+        // Defaults rank below application.properties and system properties, so all of these can be overridden
+        application.setDefaultProperties(Map.of(
+            "spring.kafka.consumer.group-id", GROUP_ID,
+            "logging.level.com.example.Notification_Service", "WARN",
+            "logging.level.com.example.Notification_Service.NotificationLoadTest", "INFO",
+            "logging.level.org.apache.kafka", "WARN",
+            "management.metrics.distribution.percentiles." + DELIVERY_LATENCY, "0.5,0.99",
+            "management.metrics.distribution.percentiles." + ACK_LATENCY, "0.5,0.99",
+            "management.metrics.distribution.expiry." + DELIVERY_LATENCY, "24h",
+            "management.metrics.distribution.expiry." + ACK_LATENCY, "24h"));
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+            "--spring.mail.host=localhost",
+            "--spring.mail.port=" + smtp.port(),
+            "--spring.mail.username=noreply@jobhub.com",
+            "--spring.mail.password=",
+            "--spring.mail.properties.mail.smtp.auth=false",
+            "--spring.mail.properties.mail.smtp.starttls.enable=false",
+            "--notification.spool.enabled=true",
+            "--notification.spool.dir=" + spoolDirectory));
+        if (MONGO_URI.isEmpty()) {
+            args.add("--spring.autoconfigure.exclude=" + MONGO_AUTO_CONFIGURATIONS);
+        } else {
+            args.add("--spring.mongodb.uri=" + MONGO_URI);
+            args.add("--spring.data.mongodb.uri=" + MONGO_URI);
+        }
+        context = application.run(args.toArray(String[]::new));
+    }
+
+    @AfterAll
+    static void stopService() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (smtp != null) {
+            smtp.close();
+        }
+        if (broker != null) {
+            broker.destroy();
+        }
+    }
+
+    @Test
+    void sustainsConfiguredEventRates() throws Exception {
+        Map<String, Object> producerProps = Map.of(
+            ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+            ProducerConfig.LINGER_MS_CONFIG, 5);
+        Map<String, Object> adminProps = Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        HeapAndGc heapAndGc = HeapAndGc.start();
+        long sequence = 0;
+        long sent = 0;
+        long maxLag = 0;
+        int deliveredAtStart = smtp.messages();
+
+        try (KafkaProducer<String, byte[]> producer = new KafkaProducer<>(producerProps, new StringSerializer(), new ByteArraySerializer());
+             Admin admin = Admin.create(adminProps)) {
+            long start = System.nanoTime();
+            long end = start + DURATION.toNanos();
+            long nextLagSample = start;
+            long sentUserEvents = 0;
+            long sentApplicationEvents = 0;
+            // Paced in small steps, sending whatever is due, so a slow send does not lower the offered rate
+            for (long now = start; now < end; now = System.nanoTime()) {
+                double elapsedSeconds = (now - start) / 1e9;
+                for (; sentUserEvents < (long) (USER_EVENTS_RATE * elapsedSeconds); sentUserEvents++) {
+                    producer.send(userRegistered(++sequence));
+                }
+                for (; sentApplicationEvents < (long) (APPLICATION_EVENTS_RATE * elapsedSeconds); sentApplicationEvents++) {
+                    producer.send(applicationEvent(++sequence, sentApplicationEvents % 2 == 0));
+                }
+                if (now >= nextLagSample) {
+                    maxLag = Math.max(maxLag, consumerLag(admin));
+                    nextLagSample = now + TimeUnit.SECONDS.toNanos(1);
+                }
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+            producer.flush();
+            sent = sentUserEvents + sentApplicationEvents;
+            int deliveredInWindow = smtp.messages() - deliveredAtStart;
+            long lagAtEnd = consumerLag(admin);
+
+            long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            while (smtp.messages() - deliveredAtStart < sent && System.nanoTime() < drainDeadline) {
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+            double drainSeconds = (System.nanoTime() - end) / 1e9;
+            int delivered = smtp.messages() - deliveredAtStart;
+
+            StringBuilder report = new StringBuilder("\n=== Notification service load test ===\n");
+            report.append(String.format(Locale.ROOT, "Offered        %.0f user-events/s + %.0f application-events/s for %ds, %d partitions%n",
+                USER_EVENTS_RATE, APPLICATION_EVENTS_RATE, DURATION.toSeconds(), PARTITIONS));
+            report.append(String.format(Locale.ROOT, "SMTP latency   median %dms, p99 %dms (log-normal); connections opened: %d%n",
+                SMTP_LATENCY_MEDIAN.toMillis(), SMTP_LATENCY_P99.toMillis(), smtp.connections()));
+            report.append(String.format(Locale.ROOT, "Throughput     %.1f emails/s sustained during the run; %d of %d delivered, %.1fs to drain%n",
+                deliveredInWindow / (DURATION.toNanos() / 1e9), delivered, sent, drainSeconds));
+            report.append(String.format(Locale.ROOT, "Consumer lag   max %d, %d when producing stopped, %d at the end%n",
+                maxLag, lagAtEnd, consumerLag(admin)));
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            appendLatencies(report, registry, DELIVERY_LATENCY, "event", "provider");
+            appendLatencies(report, registry, ACK_LATENCY, "topic", "event");
+            heapAndGc.appendTo(report);
+            Files.createDirectories(REPORT.toAbsolutePath().getParent());
+            Files.writeString(REPORT, report);
+            logger.info("{}Report written to {}", report, REPORT.toAbsolutePath());
+
+            assertEquals(sent, delivered, "Not every event was delivered within " + DRAIN_TIMEOUT);
+        }
+    }
+
+    private ProducerRecord<String, byte[]> userRegistered(long n) throws IOException {
+        String userId = "load-user-" + n;
+        UserRegisteredEvent event = new UserRegisteredEvent(UserRegisteredEvent.USER_REGISTERED, userId,
+            "user" + n + "@example.com", "token-" + n, "User " + n, Instant.now());
+        return new ProducerRecord<>(USER_EVENTS, userId, objectMapper.writeValueAsBytes(event));
+    }
+
+    private ProducerRecord<String, byte[]> applicationEvent(long n, boolean submitted) throws IOException {
+        String applicationId = "load-application-" + n;
+        String eventType = submitted ? ApplicationEventData.APPLICATION_SUBMITTED : ApplicationEventData.RESUME_VIEWED;
+        ApplicationEventData event = new ApplicationEventData(eventType, applicationId, n, "Software Engineer",
+            "Acme", "company-" + n % 100, "employer-" + n % 100, "load-user-" + n, "Applicant " + n,
+            "applicant" + n + "@example.com", "resume-" + n, "SUBMITTED", LocalDateTime.now().toString(),
+            Instant.now().toString());
+        return new ProducerRecord<>(APPLICATION_EVENTS, applicationId, objectMapper.writeValueAsBytes(event));
+    }
+
+    private static long consumerLag(Admin admin) throws ExecutionException, InterruptedException {
+        Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(GROUP_ID)
+            .partitionsToOffsetAndMetadata().get();
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        for (String topic : List.of(USER_EVENTS, APPLICATION_EVENTS)) {
+            for (int partition = 0; partition < PARTITIONS; partition++) {
+                latest.put(new TopicPartition(topic, partition), OffsetSpec.latest());
+            }
+        }
+        long lag = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> end : admin.listOffsets(latest).all().get().entrySet()) {
+            OffsetAndMetadata offset = committed.get(end.getKey());
+            lag += end.getValue().offset() - (offset != null ? offset.offset() : 0);
+        }
+        return lag;
+    }
+
+    private static void appendLatencies(StringBuilder report, MeterRegistry registry, String name, String... tags) {
+        for (Timer timer : registry.find(name).timers()) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-26s", name));
+            for (String tag : tags) {
+                line.append(' ').append(tag).append('=').append(timer.getId().getTag(tag));
+            }
+            line.append(String.format(Locale.ROOT, "  n=%d", snapshot.count()));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                line.append(String.format(Locale.ROOT, "  p%.0f=%.0fms", percentile.percentile() * 100,
+                    percentile.value(TimeUnit.MILLISECONDS)));
+            }
+            line.append(String.format(Locale.ROOT, "  max=%.0fms", snapshot.max(TimeUnit.MILLISECONDS)));
+            report.append(line).append('\n');
+        }
+    }
+
+    private static String setting(String name, String defaultValue) {
+        return System.getProperty(name, defaultValue);
+    }
+
+    private static Duration duration(String name, String defaultValue) {
+        return DurationStyle.detectAndParse(setting(name, defaultValue));
+    }
+
+    /**
+     * Per-message SMTP latency from a log-normal distribution fitted to a median and a 99th percentile,
+     * the long-tailed shape provider response times usually have.
+     */
+    private record LogNormalLatency(double mu, double sigma) implements LongSupplier {
+
+        private static final double Z_99 = 2.326;
+
+        LogNormalLatency(Duration median, Duration p99) {
+            this(Math.log(Math.max(1, median.toMillis())),
+                Math.max(0, Math.log(Math.max(1, p99.toMillis())) - Math.log(Math.max(1, median.toMillis()))) / Z_99);
+        }
+
+        @Override
+        public long getAsLong() {
+            return Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+    }
+
+    /**
+     * Heap and garbage collection over the run: collections and pause time per collector since the start,
+     * peak usage across heap pools, and the heap in use at the end.
+     */
+    private record HeapAndGc(Map<String, long[]> collectorsAtStart) {
+
+        static HeapAndGc start() {
+            Map<String, long[]> collectors = new HashMap<>();
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                collectors.put(collector.getName(), new long[]{collector.getCollectionCount(), collector.getCollectionTime()});
+            }
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                pool.resetPeakUsage();
+            }
+            return new HeapAndGc(collectors);
+        }
+
+        void appendTo(StringBuilder report) {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            long used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            long max = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+            report.append(String.format(Locale.ROOT, "Heap           %d MB used at the end, %d MB peak, %d MB max%n",
+                used >> 20, peak >> 20, max >> 20));
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                long[] atStart = collectorsAtStart.getOrDefault(collector.getName(), new long[2]);
+                report.append(String.format(Locale.ROOT, "GC             %s: %d collections, %d ms%n", collector.getName(),
+                    collector.getCollectionCount() - atStart[0], collector.getCollectionTime() - atStart[1]));
+            }
+        }
+    }
+}
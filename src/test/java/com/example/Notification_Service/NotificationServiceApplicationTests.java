@@ -3,7 +3,12 @@ package com.example.Notification_Service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// No broker runs here, so topic declaration gives up quickly instead of holding up startup
+@SpringBootTest(properties = {
+	"spring.kafka.admin.operation-timeout=5s",
+	"spring.kafka.admin.close-timeout=1s",
+	"notification.kafka.retry.describe-timeout=1s"
+})
 class NotificationServiceApplicationTests {
 
 	@Test
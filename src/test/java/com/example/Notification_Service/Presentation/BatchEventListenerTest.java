@@ -0,0 +1,110 @@
+package com.example.Notification_Service.Presentation;
+
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchEventListenerTest {
+
+    @Mock
+    private KafkaEventListener userEventListener;
+
+    @Mock
+    private ApplicationEventConsumer applicationEventConsumer;
+
+    @Mock
+    private DeadLetterPublishingRecoverer deadLetterPublishingRecoverer;
+
+    @Mock
+    private Acknowledgment ack;
+
+    @Mock
+    private NotificationMetrics notificationMetrics;
+
+    private ThreadPoolTaskExecutor executor;
+    private BatchEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        listener = new BatchEventListener(userEventListener, applicationEventConsumer, deadLetterPublishingRecoverer, executor,
+            Duration.ofMillis(10), notificationMetrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.shutdown();
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldSendOnlyFailedRecordsToDltAndAckBatchOnce() {
+        ConsumerRecord<String, byte[]> ok1 = new ConsumerRecord<>("application-events", 0, 10L, null, "ok-1".getBytes());
+        ConsumerRecord<String, byte[]> bad = new ConsumerRecord<>("application-events", 0, 11L, null, "bad".getBytes());
+        ConsumerRecord<String, byte[]> ok2 = new ConsumerRecord<>("application-events", 0, 12L, null, "ok-2".getBytes());
+        // Lenient: the other records hit the same mock with different arguments on worker threads
+        lenient().doThrow(new RuntimeException("boom")).when(applicationEventConsumer).process(bad);
+
+        listener.onApplicationEvents(List.of(ok1, bad, ok2), ack);
+
+        verify(applicationEventConsumer).process(ok1);
+        verify(applicationEventConsumer).process(ok2);
+        verify(deadLetterPublishingRecoverer).accept(eq(bad), any(RuntimeException.class));
+        verify(deadLetterPublishingRecoverer, never()).accept(eq(ok1), any(Exception.class));
+        verify(ack, times(1)).acknowledge();
+    }
+
+    @Test
+    void shouldRetryAFailedPublishBeforeAckingTheBatch() {
+        ConsumerRecord<String, byte[]> ok = new ConsumerRecord<>("application-events", 0, 10L, null, "ok".getBytes());
+        ConsumerRecord<String, byte[]> bad = new ConsumerRecord<>("application-events", 0, 11L, null, "bad".getBytes());
+        lenient().doThrow(new RuntimeException("boom")).when(applicationEventConsumer).process(bad);
+        doThrow(new KafkaException("broker down")).doNothing()
+            .when(deadLetterPublishingRecoverer).accept(eq(bad), any());
+
+        listener.onApplicationEvents(List.of(ok, bad), ack);
+
+        verify(deadLetterPublishingRecoverer, times(2)).accept(eq(bad), any());
+        verify(ack, times(1)).acknowledge();
+    }
+
+    @Test
+    void shouldLeaveTheUnpublishedRecordAndTheRestForRedeliveryAtShutdown() {
+        ConsumerRecord<String, byte[]> ok = new ConsumerRecord<>("application-events", 0, 10L, null, "ok".getBytes());
+        ConsumerRecord<String, byte[]> bad = new ConsumerRecord<>("application-events", 0, 11L, null, "bad".getBytes());
+        ConsumerRecord<String, byte[]> after = new ConsumerRecord<>("application-events", 0, 12L, null, "after".getBytes());
+        lenient().doThrow(new RuntimeException("boom")).when(applicationEventConsumer).process(bad);
+        doAnswer(invocation -> {
+            listener.shutdown();
+            throw new KafkaException("broker down");
+        }).when(deadLetterPublishingRecoverer).accept(eq(bad), any());
+
+        assertThatThrownBy(() -> listener.onApplicationEvents(List.of(ok, bad, after), ack))
+            .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isEqualTo(1));
+
+        verify(applicationEventConsumer).process(after);
+        verify(ack, never()).acknowledge();
+    }
+}
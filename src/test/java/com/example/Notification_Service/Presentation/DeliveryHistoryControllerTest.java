@@ -0,0 +1,91 @@
+package com.example.Notification_Service.Presentation;
+
+import com.example.Notification_Service.Application.ports.DeliveryHistory;
+import com.example.Notification_Service.Domain.DeliveryRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.hamcrest.Matchers;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryHistoryControllerTest {
+
+    @Mock
+    private DeliveryHistory deliveryHistory;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        mockMvc = MockMvcBuilders.standaloneSetup(new DeliveryHistoryController(deliveryHistory, objectMapper)).build();
+    }
+
+    @Test
+    void shouldReturnPageWithNextCursor() throws Exception {
+        when(deliveryHistory.find(eq(new DeliveryHistory.Filter("user1", null, null)), eq("abc"), eq(2)))
+            .thenReturn(new DeliveryHistory.Page(List.of(record("1"), record("2")), "next"));
+
+        mockMvc.perform(get("/api/deliveries").param("userId", "user1").param("cursor", "abc").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(2))
+            .andExpect(jsonPath("$.items[0].id").value("1"))
+            .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void shouldRequireExactlyOneFilter() throws Exception {
+        mockMvc.perform(get("/api/deliveries")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/deliveries").param("userId", "u").param("email", "e")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldRejectMalformedCursorAndOversizedLimit() throws Exception {
+        when(deliveryHistory.find(any(), eq("bad"), eq(DeliveryHistoryController.DEFAULT_LIMIT)))
+            .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/deliveries").param("userId", "u").param("cursor", "bad")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/deliveries").param("userId", "u").param("limit", "5000")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldStreamExportAsNdjson() throws Exception {
+        when(deliveryHistory.stream(new DeliveryHistory.Filter(null, null, "app1")))
+            .thenReturn(Stream.of(record("1"), record("2")));
+
+        MvcResult result = mockMvc.perform(get("/api/deliveries/export").param("applicationId", "app1"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(content().string(Matchers.matchesPattern(
+                "\\{\"id\":\"1\".*\"timestamp\":\"2026-01-01T12:00:00\"}\n\\{\"id\":\"2\".*}\n")));
+    }
+
+    private static DeliveryRecord record(String id) {
+        return new DeliveryRecord(id, "user1", "a@example.com", "app1", true, null, LocalDateTime.of(2026, 1, 1, 12, 0));
+    }
+}
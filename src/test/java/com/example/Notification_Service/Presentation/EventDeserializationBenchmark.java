@@ -0,0 +1,77 @@
+package com.example.Notification_Service.Presentation;
+
+import com.example.Notification_Service.Domain.ApplicationEventData;
+import com.example.Notification_Service.Domain.UserRegisteredEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Events per second bound from Kafka payload bytes with the application's {@link ObjectMapper},
+ * as the listeners do, next to the cost of peeking at the event type first ({@link EventTypes}).
+ * Run with {@code ./mvnw -Pbenchmark test -Dbenchmark.include=EventDeserialization}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventDeserializationBenchmark {
+
+    // Configured like the ObjectMapper bean in NotificationServiceApplication
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ObjectReader applicationEventReader = objectMapper.readerFor(ApplicationEventData.class);
+
+    private final byte[] userRegistered = """
+        {"eventType":"UserRegistered","userId":"user-123","email":"john@example.com",
+         "verificationToken":"2f1c7a9e-4b1d-4c7e-9d0a-5a8f3e6b2c11","firstName":"John",
+         "timestamp":"2026-01-15T10:15:30.123Z"}
+        """.getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] applicationSubmitted = """
+        {"eventType":"APPLICATION_SUBMITTED","applicationId":"app-42","jobId":1042,"jobTitle":"Backend Engineer",
+         "companyName":"Acme","companyId":"company-1","employerId":"employer-1","userId":"user-123",
+         "applicantName":"Jane Doe","applicantEmail":"jane@example.com","resumeId":"resume-7","status":"SUBMITTED",
+         "appliedDate":"2026-01-15","timestamp":"2026-01-15T10:15:30.123Z","source":"web","referrer":null}
+        """.getBytes(StandardCharsets.UTF_8);
+
+    private final RecordHeaders noHeaders = new RecordHeaders();
+
+    @Benchmark
+    public UserRegisteredEvent userRegistered() throws IOException {
+        return objectMapper.readValue(userRegistered, UserRegisteredEvent.class);
+    }
+
+    @Benchmark
+    public ApplicationEventData applicationSubmitted() throws IOException {
+        return objectMapper.readValue(applicationSubmitted, ApplicationEventData.class);
+    }
+
+    /**
+     * A reader resolved once, instead of looking up the deserializer on every call.
+     */
+    @Benchmark
+    public ApplicationEventData applicationSubmittedWithReader() throws IOException {
+        return applicationEventReader.readValue(applicationSubmitted);
+    }
+
+    @Benchmark
+    public String eventTypeFromPayload() throws IOException {
+        return EventTypes.of(noHeaders, applicationSubmitted);
+    }
+}
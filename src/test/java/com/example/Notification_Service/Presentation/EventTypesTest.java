@@ -0,0 +1,46 @@
+package com.example.Notification_Service.Presentation;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventTypesTest {
+
+    @Test
+    void shouldPreferHeaderOverPayload() throws Exception {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(EventTypes.HEADER, utf8("RESUME_VIEWED"));
+
+        assertThat(EventTypes.of(headers, utf8("{\"eventType\":\"APPLICATION_SUBMITTED\"}"))).isEqualTo("RESUME_VIEWED");
+    }
+
+    @Test
+    void shouldReadTopLevelFieldSkippingNestedValues() throws Exception {
+        byte[] payload = utf8("{\"data\":{\"eventType\":\"nested\",\"tags\":[1,2]},\"eventType\":\"UserRegistered\",\"userId\":\"u1\"}");
+
+        assertThat(EventTypes.of(new RecordHeaders(), payload)).isEqualTo("UserRegistered");
+        assertThat(EventTypes.of(new RecordHeaders(), utf8("{\"userId\":\"u1\"}"))).isNull();
+    }
+
+    @Test
+    void shouldRejectMalformedPayloadSoItReachesTheDlt() {
+        assertThatThrownBy(() -> EventTypes.of(new RecordHeaders(), utf8("not json"))).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void shouldTagOnlyHandledTypesByName() {
+        assertThat(EventTypes.tag("UserRegistered")).isEqualTo("UserRegistered");
+        assertThat(EventTypes.tag("RESUME_VIEWED")).isEqualTo("RESUME_VIEWED");
+        assertThat(EventTypes.tag("order-" + System.nanoTime())).isEqualTo(EventTypes.UNKNOWN);
+        assertThat(EventTypes.tag(null)).isEqualTo(EventTypes.UNKNOWN);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
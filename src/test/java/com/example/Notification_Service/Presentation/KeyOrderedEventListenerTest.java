@@ -0,0 +1,143 @@
+package com.example.Notification_Service.Presentation;
+
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KeyOrderedEventListenerTest {
+
+    @Mock
+    private KafkaEventListener userEventListener;
+
+    @Mock
+    private ApplicationEventConsumer applicationEventConsumer;
+
+    @Mock
+    private DeadLetterPublishingRecoverer deadLetterPublishingRecoverer;
+
+    @Mock
+    private NotificationMetrics notificationMetrics;
+
+    private KeyOrderedEventListener listener;
+
+    @AfterEach
+    void tearDown() {
+        if (listener != null) {
+            listener.shutdown();
+        }
+    }
+
+    @Test
+    void shouldKeepPerUserOrderAcrossLanes() throws Exception {
+        listener = new KeyOrderedEventListener(userEventListener, applicationEventConsumer, deadLetterPublishingRecoverer, 4,
+            Executors.defaultThreadFactory(), Duration.ofMillis(10), notificationMetrics);
+        List<String> processed = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            ConsumerRecord<String, byte[]> record = invocation.getArgument(0);
+            processed.add(new String(record.value(), StandardCharsets.UTF_8));
+            return null;
+        }).when(userEventListener).process(any());
+        CountDownLatch acked = new CountDownLatch(20);
+        Acknowledgment ack = acked::countDown;
+
+        for (int i = 0; i < 10; i++) {
+            listener.onUserEvent(record("user-events", i * 2, "{\"userId\":\"alice\",\"seq\":" + i + "}"), ack);
+            listener.onUserEvent(record("user-events", i * 2 + 1, "{\"userId\":\"bob\",\"seq\":" + i + "}"), ack);
+        }
+
+        assertThat(acked.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(processed.stream().filter(p -> p.contains("alice")).toList())
+            .containsExactly(IntStream.range(0, 10)
+                .mapToObj(i -> "{\"userId\":\"alice\",\"seq\":" + i + "}").toArray(String[]::new));
+    }
+
+    @Test
+    void shouldSendFailedRecordToDltAndStillAck() throws Exception {
+        listener = new KeyOrderedEventListener(userEventListener, applicationEventConsumer, deadLetterPublishingRecoverer, 2,
+            Executors.defaultThreadFactory(), Duration.ofMillis(10), notificationMetrics);
+        ConsumerRecord<String, byte[]> bad = record("application-events", 5, "{\"applicationId\":\"app-1\"}");
+        lenient().doThrow(new RuntimeException("boom")).when(applicationEventConsumer).process(bad);
+        CountDownLatch acked = new CountDownLatch(1);
+
+        listener.onApplicationEvent(bad, acked::countDown);
+
+        assertThat(acked.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(deadLetterPublishingRecoverer).accept(eq(bad), any(RuntimeException.class));
+    }
+
+    @Test
+    void shouldAckOnlyOnceTheRecordIsPublishedToTheRetryTier() throws Exception {
+        listener = new KeyOrderedEventListener(userEventListener, applicationEventConsumer, deadLetterPublishingRecoverer, 2,
+            Executors.defaultThreadFactory(), Duration.ofMillis(10), notificationMetrics);
+        ConsumerRecord<String, byte[]> bad = record("application-events", 5, "{\"applicationId\":\"app-1\"}");
+        doThrow(new RuntimeException("boom")).when(applicationEventConsumer).process(bad);
+        doThrow(new KafkaException("broker down")).doThrow(new KafkaException("broker down")).doNothing()
+            .when(deadLetterPublishingRecoverer).accept(eq(bad), any());
+        CountDownLatch acked = new CountDownLatch(1);
+
+        listener.onApplicationEvent(bad, acked::countDown);
+
+        assertThat(acked.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(deadLetterPublishingRecoverer, times(3)).accept(eq(bad), any());
+    }
+
+    @Test
+    void shouldLeaveRecordUnackedWhenTheRetryTierPublishNeverSucceeds() throws Exception {
+        listener = new KeyOrderedEventListener(userEventListener, applicationEventConsumer, deadLetterPublishingRecoverer, 2,
+            Executors.defaultThreadFactory(), Duration.ofMillis(10), notificationMetrics);
+        ConsumerRecord<String, byte[]> bad = record("application-events", 5, "{\"applicationId\":\"app-1\"}");
+        doThrow(new RuntimeException("boom")).when(applicationEventConsumer).process(bad);
+        CountDownLatch published = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            published.countDown();
+            throw new KafkaException("broker down");
+        }).when(deadLetterPublishingRecoverer).accept(eq(bad), any());
+        AtomicBoolean acked = new AtomicBoolean();
+
+        listener.onApplicationEvent(bad, () -> acked.set(true));
+        assertThat(published.await(5, TimeUnit.SECONDS)).isTrue();
+        listener.shutdown();
+        listener = null;
+
+        assertThat(acked).isFalse();
+    }
+
+    @Test
+    void shouldPreferRecordKeyOverPayloadField() {
+        assertThat(OrderingKeys.of("key-1", utf8("{\"userId\":\"alice\"}"), "userId")).isEqualTo("key-1");
+        assertThat(OrderingKeys.of(null, utf8("{\"nested\":{\"userId\":\"x\"},\"userId\":\"alice\"}"), "userId"))
+            .isEqualTo("alice");
+        assertThat(OrderingKeys.of(null, utf8("not json"), "userId")).isNull();
+    }
+
+    private static ConsumerRecord<String, byte[]> record(String topic, long offset, String value) {
+        return new ConsumerRecord<>(topic, 0, offset, null, utf8(value));
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
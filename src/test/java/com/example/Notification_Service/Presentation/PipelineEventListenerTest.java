@@ -0,0 +1,124 @@
+package com.example.Notification_Service.Presentation;
+
+import com.example.Notification_Service.Application.pipeline.NotificationPipeline;
+import com.example.Notification_Service.Application.ports.NotificationMetrics;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PipelineEventListenerTest {
+
+    @Mock
+    private KafkaEventListener userEventListener;
+
+    @Mock
+    private ApplicationEventConsumer applicationEventConsumer;
+
+    @Mock
+    private DeadLetterPublishingRecoverer deadLetterPublishingRecoverer;
+
+    @Mock
+    private KafkaListenerEndpointRegistry registry;
+
+    @Mock
+    private NotificationPipeline notificationPipeline;
+
+    @Mock
+    private NotificationMetrics notificationMetrics;
+
+    private PipelineEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new PipelineEventListener(userEventListener, applicationEventConsumer, deadLetterPublishingRecoverer,
+            registry, notificationPipeline, Duration.ofMillis(10), notificationMetrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.shutdown();
+    }
+
+    @Test
+    void shouldAckOnlyOnceTheFailedRecordIsPublishedToTheRetryTier() throws Exception {
+        ConsumerRecord<String, byte[]> bad = record(7);
+        when(userEventListener.submit(bad)).thenReturn(CompletableFuture.failedFuture(new RuntimeException("boom")));
+        doThrow(new KafkaException("broker down")).doNothing()
+            .when(deadLetterPublishingRecoverer).accept(eq(bad), any());
+        CountDownLatch acked = new CountDownLatch(1);
+
+        listener.onUserEvent(bad, acked::countDown);
+
+        assertThat(acked.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(deadLetterPublishingRecoverer, times(2)).accept(eq(bad), any());
+    }
+
+    @Test
+    void shouldLeaveRecordUnackedWhenTheRetryTierPublishNeverSucceeds() throws Exception {
+        ConsumerRecord<String, byte[]> bad = record(7);
+        CompletableFuture<String> result = new CompletableFuture<>();
+        when(userEventListener.submit(bad)).thenReturn(result);
+        CountDownLatch published = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            published.countDown();
+            throw new KafkaException("broker down");
+        }).when(deadLetterPublishingRecoverer).accept(eq(bad), any());
+        AtomicBoolean acked = new AtomicBoolean();
+
+        listener.onUserEvent(bad, () -> acked.set(true));
+        Thread sendStage = new Thread(() -> result.completeExceptionally(new RuntimeException("boom")));
+        sendStage.start();
+        assertThat(published.await(5, TimeUnit.SECONDS)).isTrue();
+        listener.shutdown();
+        sendStage.join(5000);
+
+        assertThat(sendStage.isAlive()).isFalse();
+        assertThat(acked).isFalse();
+    }
+
+    @Test
+    void shouldTagAckLatencyWithTheTypeResolvedAtDispatch() throws Exception {
+        // The payload carries no type, so the tag can only come from what submit resolved
+        ConsumerRecord<String, byte[]> sent = new ConsumerRecord<>("user-events", 0, 8, System.currentTimeMillis(),
+            TimestampType.CREATE_TIME, 0, 0, null, "{}".getBytes(StandardCharsets.UTF_8), new RecordHeaders(), Optional.empty());
+        ConsumerRecord<String, byte[]> other = new ConsumerRecord<>("user-events", 0, 9, System.currentTimeMillis(),
+            TimestampType.CREATE_TIME, 0, 0, null, "{}".getBytes(StandardCharsets.UTF_8), new RecordHeaders(), Optional.empty());
+        when(userEventListener.submit(sent)).thenReturn(CompletableFuture.completedFuture("UserRegistered"));
+        when(userEventListener.submit(other)).thenReturn(CompletableFuture.completedFuture("SomeoneElsesEvent"));
+
+        listener.onUserEvent(sent, () -> { });
+        listener.onUserEvent(other, () -> { });
+
+        verify(notificationMetrics).recordAcked(eq("user-events"), eq("UserRegistered"), anyLong());
+        verify(notificationMetrics).recordAcked(eq("user-events"), eq("unknown"), anyLong());
+    }
+
+    private static ConsumerRecord<String, byte[]> record(long offset) {
+        return new ConsumerRecord<>("user-events", 0, offset, null,
+            "{\"userId\":\"alice\"}".getBytes(StandardCharsets.UTF_8));
+    }
+}